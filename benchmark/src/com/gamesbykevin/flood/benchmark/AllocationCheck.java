@@ -0,0 +1,103 @@
+package com.gamesbykevin.flood.benchmark;
+
+import java.util.Collection;
+
+import org.openjdk.jmh.infra.BenchmarkParams;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.Result;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Run the benchmarks of the engine and the painters with the gc profiler and fail if any of them allocates.<br>
+ * A move on the board, and repainting the cached layers of the squares, switches and digits when they change,
+ * are expected to allocate nothing after the warm up, so gc.alloc.rate.norm has to stay below
+ * {@link #MAX_BYTES_PER_OPERATION}. The exit code is 1 if any benchmark allocates.
+ * <p>
+ * This only covers the code that builds without android. The frames of the game, which draw the cached layers,
+ * the controller and the screens, are checked on a device by the AllocationGuard while the diagnostics are enabled.
+ * <p>
+ * Any of the regular JMH command line options can be passed, for example fewer forks or iterations.
+ */
+public final class AllocationCheck
+{
+	/**
+	 * The benchmarks of a move and of repainting a layer, done whenever the board changes while playing
+	 */
+	public static final String STEADY_STATE = "BoardBenchmark\\.move$|RenderBenchmark\\.(paintMove|paintSwitches|paintNumber)$";
+
+	/**
+	 * The most bytes an operation can allocate, more than 0 as the profiler itself is not exact
+	 */
+	public static final double MAX_BYTES_PER_OPERATION = 1.0;
+
+	//the name of the secondary result with the bytes allocated per operation
+	private static final String ALLOC_RATE_NORM = "gc.alloc.rate.norm";
+
+	private AllocationCheck()
+	{
+		//no need to create
+	}
+
+	public static void main(final String[] args) throws RunnerException, CommandLineOptionException
+	{
+		final Collection<RunResult> results = new Runner(
+			new OptionsBuilder()
+				.parent(new CommandLineOptions(args))
+				.include(STEADY_STATE)
+				.addProfiler(GCProfiler.class)
+				.build()
+		).run();
+
+		int failures = 0;
+
+		for (RunResult result : results)
+		{
+			final String name = getName(result.getParams());
+			final Result norm = result.getSecondaryResults().get(ALLOC_RATE_NORM);
+
+			if (norm == null)
+			{
+				System.out.println(name + " has no " + ALLOC_RATE_NORM);
+				failures++;
+			}
+			else if (norm.getScore() > MAX_BYTES_PER_OPERATION)
+			{
+				System.out.println(name + " allocates " + norm.getScore() + " " + norm.getScoreUnit());
+				failures++;
+			}
+		}
+
+		System.out.println(failures + " of " + results.size() + " benchmark(s) allocate");
+		System.exit(failures == 0 && !results.isEmpty() ? 0 : 1);
+	}
+
+	/**
+	 * Get the name
+	 * @param params The parameters of a run
+	 * @return The benchmark and its parameters, for example RenderBenchmark.paintMove(size=25, colors=6)
+	 */
+	private static String getName(final BenchmarkParams params)
+	{
+		final StringBuilder name = new StringBuilder(params.getBenchmark());
+
+		if (!params.getParamsKeys().isEmpty())
+		{
+			String separator = "(";
+
+			for (String key : params.getParamsKeys())
+			{
+				name.append(separator).append(key).append('=').append(params.getParam(key));
+				separator = ", ";
+			}
+
+			name.append(')');
+		}
+
+		return name.toString();
+	}
+}
@@ -0,0 +1,31 @@
+package com.gamesbykevin.flood.benchmark;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Run the benchmarks with the gc profiler always enabled, so every result also reports gc.alloc.rate.norm
+ * (the number of bytes allocated per operation).<br>
+ * Any of the regular JMH command line options can be passed, for example a regex to only run some of the benchmarks.
+ */
+public final class BenchmarkRunner
+{
+	private BenchmarkRunner()
+	{
+		//no need to create
+	}
+	
+	public static void main(final String[] args) throws RunnerException, CommandLineOptionException
+	{
+		new Runner(
+			new OptionsBuilder()
+				.parent(new CommandLineOptions(args))
+				.addProfiler(GCProfiler.class)
+				.build()
+		).run();
+	}
+}
@@ -0,0 +1,124 @@
+package com.gamesbykevin.flood.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.gamesbykevin.flood.engine.BoardHelper;
+
+/**
+ * Measure the board engine: creating a board, playing a board, a single move and checking for a win.<br>
+ * Run with the gc profiler (see {@link BenchmarkRunner}) to also report the bytes allocated per operation (gc.alloc.rate.norm).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BoardBenchmark
+{
+	/**
+	 * A board where the first move is restored before every call, so every move measured is the same
+	 */
+	@State(Scope.Thread)
+	public static class MoveState
+	{
+		//the color of the move we measure
+		private int color;
+		
+		/**
+		 * Pick the color with the most regions in the frontier
+		 * @param board The board we are playing
+		 */
+		@Setup(Level.Iteration)
+		public void pick(final BoardState board)
+		{
+			//pick from the start of the board
+			board.restore();
+			
+			color = 0;
+			
+			for (int index = 1; index < board.colors; index++)
+			{
+				if (board.flood.getFrontierSize(index) > board.flood.getFrontierSize(color))
+					color = index;
+			}
+		}
+		
+		/**
+		 * Restore the board before every move
+		 * @param board The board we are playing
+		 */
+		@Setup(Level.Invocation)
+		public void restore(final BoardState board)
+		{
+			board.restore();
+		}
+	}
+	
+	/**
+	 * Create a new board: random colors, grouping the regions, compiling the graph and seeding the flood
+	 * @param board The board
+	 * @return The number of regions on the board
+	 */
+	@Benchmark
+	public int generate(final BoardState board)
+	{
+		board.create();
+		return board.graph.getRegions();
+	}
+	
+	/**
+	 * Play the board with random moves until every square is flooded
+	 * @param board The board
+	 * @return The number of moves needed
+	 */
+	@Benchmark
+	public int playthrough(final BoardState board)
+	{
+		board.restore();
+		
+		int moves = 0;
+		
+		while (!BoardHelper.hasWin(board.flood))
+		{
+			BoardHelper.floodSquares(board.flood, board.pickColor());
+			moves++;
+		}
+		
+		return moves;
+	}
+	
+	/**
+	 * Make a single move from the start of the board
+	 * @param board The board
+	 * @param move The move we are making
+	 * @return The number of squares flooded
+	 */
+	@Benchmark
+	public int move(final BoardState board, final MoveState move)
+	{
+		return BoardHelper.floodSquares(board.flood, move.color);
+	}
+	
+	/**
+	 * Check the board for a win
+	 * @param board The board
+	 * @return true if every square is flooded, false otherwise
+	 */
+	@Benchmark
+	public boolean hasWin(final BoardState board)
+	{
+		return BoardHelper.hasWin(board.flood);
+	}
+}
@@ -0,0 +1,104 @@
+package com.gamesbykevin.flood.benchmark;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.gamesbykevin.flood.engine.BoardHelper;
+import com.gamesbykevin.flood.engine.FloodEngine;
+import com.gamesbykevin.flood.engine.PackedBoardModel;
+import com.gamesbykevin.flood.engine.RegionGraph;
+import com.gamesbykevin.flood.engine.SplitMix64;
+import com.gamesbykevin.flood.engine.UnionFind;
+
+/**
+ * A board shared by the benchmarks of a single thread.<br>
+ * This follows the same steps as the game when a board is created, without any of the android classes.
+ */
+@State(Scope.Thread)
+public class BoardState
+{
+	//the maximum number of colors on a board
+	public static final int MAX_COLORS = 6;
+	
+	/**
+	 * The size of the board (column, row)
+	 */
+	@Param({"5", "25", "50", "75", "104"})
+	public int size;
+	
+	/**
+	 * The number of colors in play
+	 */
+	@Param({"3", "4", "5", "6"})
+	public int colors;
+	
+	//the objects making up the board, they are re-used for every board
+	public final PackedBoardModel model = new PackedBoardModel();
+	public final UnionFind groups = new UnionFind(0);
+	public final RegionGraph graph = new RegionGraph();
+	public final FloodEngine flood = new FloodEngine(MAX_COLORS);
+	
+	//the same seed every run so the results can be compared
+	public final SplitMix64 random = new SplitMix64(0);
+	
+	/**
+	 * Create a new board for each iteration
+	 */
+	@Setup(Level.Iteration)
+	public void setup()
+	{
+		create();
+	}
+	
+	/**
+	 * Create a new board the same way the game does
+	 */
+	public void create()
+	{
+		BoardHelper.generate(model, size, colors, random);
+		graph.build(model, BoardHelper.groupSquares(model, groups));
+		start();
+	}
+	
+	/**
+	 * Undo every move so the board can be played again.<br>
+	 * The colors and regions do not change while playing, so only the flooded area has to be restored
+	 */
+	public void restore()
+	{
+		for (int index = 0; index < model.getSize(); index++)
+		{
+			model.setFlooded(index, false);
+		}
+		
+		start();
+	}
+	
+	/**
+	 * Pick a random color that will absorb at least one region
+	 * @return The color index
+	 */
+	public int pickColor()
+	{
+		while (true)
+		{
+			final int color = random.nextInt(colors);
+			
+			if (flood.getFrontierSize(color) > 0)
+				return color;
+		}
+	}
+	
+	/**
+	 * Flood the start and the opposite corner
+	 */
+	private void start()
+	{
+		flood.reset(model, graph);
+		flood.seed(0, 0);
+		flood.seed(size - 1, size - 1);
+	}
+}
@@ -0,0 +1,185 @@
+package com.gamesbykevin.flood.benchmark;
+
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+
+import javax.imageio.ImageIO;
+
+import com.gamesbykevin.flood.engine.BoardHelper;
+import com.gamesbykevin.flood.render.BoardPainter;
+import com.gamesbykevin.flood.render.DigitPainter;
+import com.gamesbykevin.flood.render.RasterSheet;
+import com.gamesbykevin.flood.render.RasterTarget;
+import com.gamesbykevin.flood.render.RenderTarget;
+import com.gamesbykevin.flood.render.SwitchPainter;
+
+/**
+ * Draws the same boards every run and saves each frame as an image, so frames can be compared across versions.<br>
+ * The boards are created from a fixed seed and played with the same moves, the first frame is the new board
+ * and each following frame is drawn after a move, only drawing the flooded squares like the game does.
+ * The row of switches is captured with each switch hidden, and a few numbers are captured with the digit glyphs.
+ * <p>
+ * Usage: FrameCapture &lt;output directory&gt; [reference directory]<br>
+ * When a reference directory is given every frame is compared to the frame with the same name,
+ * the number of pixels that differ is printed and the exit code is 1 if any frame differs.
+ */
+public final class FrameCapture
+{
+	//the board sizes we capture
+	private static final int[] SIZES = {5, 25, 50, 104};
+	
+	//the number of colors of every board
+	private static final int COLORS = 6;
+	
+	//the number of moves captured for each board
+	private static final int MOVES = 5;
+	
+	//the numbers we capture
+	private static final int[] NUMBERS = {0, 7, 42, 1234567890};
+	
+	//the size each digit is drawn, same as the game
+	private static final int GLYPH_WIDTH = 45, GLYPH_HEIGHT = 65;
+	
+	private FrameCapture()
+	{
+		//no need to create
+	}
+	
+	public static void main(final String[] args) throws IOException
+	{
+		if (args.length < 1)
+		{
+			System.err.println("Usage: FrameCapture <output directory> [reference directory]");
+			System.exit(2);
+		}
+		
+		final File output = new File(args[0]);
+		final File reference = (args.length > 1) ? new File(args[1]) : null;
+		
+		if (!output.isDirectory() && !output.mkdirs())
+			throw new IOException("Can't create " + output);
+		
+		final RasterSheet colors = RasterSheets.loadColors();
+		
+		final RasterTarget target = new RasterTarget(RenderBenchmark.BOARD_WIDTH, RenderBenchmark.BOARD_WIDTH);
+		target.setSheet(RenderTarget.SHEET_COLORS, colors);
+		
+		int different = 0;
+		
+		for (int size : SIZES)
+		{
+			//a new board from the same seed every run
+			final BoardState board = new BoardState();
+			board.size = size;
+			board.colors = COLORS;
+			board.create();
+			
+			final int dimension = RenderBenchmark.BOARD_WIDTH / size;
+			
+			//the new board
+			target.clear(0);
+			BoardPainter.paintAll(target, board.model, board.model.getColor(0), dimension);
+			
+			if (!capture(target, output, reference, "board-" + size + "-move-0"))
+				different++;
+			
+			//then each move
+			for (int move = 1; move <= MOVES && !BoardHelper.hasWin(board.flood); move++)
+			{
+				final int color = board.pickColor();
+				
+				BoardHelper.floodSquares(board.flood, color);
+				BoardPainter.paintFlooded(target, board.model, board.flood, color, dimension);
+				
+				if (!capture(target, output, reference, "board-" + size + "-move-" + move))
+					different++;
+			}
+		}
+		
+		//the row of switches, the same as the layer the game draws them on
+		final RasterTarget switches = new RasterTarget(RenderBenchmark.BOARD_WIDTH, SwitchPainter.DIMENSION);
+		switches.setSheet(RenderTarget.SHEET_COLORS, colors);
+		
+		for (int hidden = 0; hidden < COLORS; hidden++)
+		{
+			switches.clear(0);
+			SwitchPainter.paint(switches, COLORS, hidden, 0);
+			
+			if (!capture(switches, output, reference, "switches-" + COLORS + "-hidden-" + hidden))
+				different++;
+		}
+		
+		//the numbers, the same as the layer the game composites them on
+		final RasterSheet numbers = RasterSheets.loadNumbers();
+		final int[] digits = new int[DigitPainter.MAX_DIGITS];
+		
+		for (int number : NUMBERS)
+		{
+			final int count = DigitPainter.getDigits(number, digits);
+			
+			final RasterTarget layer = new RasterTarget(count * GLYPH_WIDTH, GLYPH_HEIGHT);
+			layer.setSheet(RenderTarget.SHEET_NUMBERS, numbers);
+			DigitPainter.paint(layer, digits, count, 0, 0, GLYPH_WIDTH, GLYPH_HEIGHT);
+			
+			if (!capture(layer, output, reference, "number-" + number))
+				different++;
+		}
+		
+		if (reference != null)
+		{
+			System.out.println(different + " frame(s) differ");
+			System.exit(different == 0 ? 0 : 1);
+		}
+	}
+	
+	/**
+	 * Save the frame and compare it to the reference
+	 * @param target The frame
+	 * @param output Where we save the frame
+	 * @param reference Where the frame we compare to is, null to not compare
+	 * @param frame The name of the frame
+	 * @return true if the frame is the same as the reference (or there is no reference), false otherwise
+	 * @throws IOException if the frame can't be written or the reference can't be read
+	 */
+	private static boolean capture(final RasterTarget target, final File output, final File reference, final String frame) throws IOException
+	{
+		final String name = frame + ".png";
+		
+		final BufferedImage image = new BufferedImage(target.getWidth(), target.getHeight(), BufferedImage.TYPE_INT_ARGB);
+		image.setRGB(0, 0, target.getWidth(), target.getHeight(), target.getPixels(), 0, target.getWidth());
+		ImageIO.write(image, "png", new File(output, name));
+		
+		System.out.println(name + " checksum=" + Long.toHexString(target.getChecksum()));
+		
+		if (reference == null)
+			return true;
+		
+		final File file = new File(reference, name);
+		
+		if (!file.exists())
+		{
+			System.out.println(name + " has no reference");
+			return false;
+		}
+		
+		final BufferedImage expected = ImageIO.read(file);
+		
+		if (expected.getWidth() != target.getWidth() || expected.getHeight() != target.getHeight())
+		{
+			System.out.println(name + " differs in size");
+			return false;
+		}
+		
+		//load the reference the same way so the pixels can be compared
+		final RasterTarget other = new RasterTarget(target.getWidth(), target.getHeight());
+		expected.getRGB(0, 0, target.getWidth(), target.getHeight(), other.getPixels(), 0, target.getWidth());
+		
+		final int count = target.countDifferences(other);
+		
+		if (count > 0)
+			System.out.println(name + " differs by " + count + " pixel(s)");
+		
+		return (count == 0);
+	}
+}
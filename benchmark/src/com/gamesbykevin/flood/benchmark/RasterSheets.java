@@ -0,0 +1,92 @@
+package com.gamesbykevin.flood.benchmark;
+
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+
+import javax.imageio.ImageIO;
+
+import com.gamesbykevin.flood.render.RasterSheet;
+
+/**
+ * Loads the sprite sheets of the game for drawing on a plain JVM
+ */
+public final class RasterSheets
+{
+	/**
+	 * Where the images of the game are, relative to the benchmark directory
+	 */
+	public static final String IMAGE_DIRECTORY = "../assets/image/game";
+	
+	//the colors used when the image is not found, in the order of the board colors
+	private static final int[] SOLID_COLORS = {
+		0xff00c000, 0xffe00000, 0xff0060ff,
+		0xffffffff, 0xffa000c0, 0xffffe000
+	};
+	
+	private RasterSheets()
+	{
+		//no need to create
+	}
+	
+	/**
+	 * Load the square colors, the same layout as the atlas of the game (3 x 2 squares of 88 pixels)
+	 * @return The sheet, or solid colors if the image is not found
+	 * @throws IOException if the image can't be read
+	 */
+	public static RasterSheet loadColors() throws IOException
+	{
+		final File file = new File(IMAGE_DIRECTORY, "colors.png");
+		
+		if (!file.exists())
+			return RasterSheet.createSolid(SOLID_COLORS, 88);
+		
+		return load(file, 3, 2, 88, 88);
+	}
+	
+	/**
+	 * Load the digits 0 - 9, the same layout as the atlas of the game (10 x 1 glyphs of 55 x 78 pixels)
+	 * @return The sheet, or a solid color for each digit if the image is not found
+	 * @throws IOException if the image can't be read
+	 */
+	public static RasterSheet loadNumbers() throws IOException
+	{
+		final File file = new File(IMAGE_DIRECTORY, "numbers.png");
+		
+		if (!file.exists())
+		{
+			final int[] colors = new int[10];
+			
+			for (int digit = 0; digit < colors.length; digit++)
+			{
+				colors[digit] = 0xff000000 | (digit * 0x191919);
+			}
+			
+			return RasterSheet.createSolid(colors, 55);
+		}
+		
+		return load(file, 10, 1, 55, 78);
+	}
+	
+	/**
+	 * Load a sheet of sprites of the same size
+	 * @param file The image
+	 * @param cols The number of columns of sprites
+	 * @param rows The number of rows of sprites
+	 * @param width The width of each sprite
+	 * @param height The height of each sprite
+	 * @return The sheet
+	 * @throws IOException if the image can't be read
+	 */
+	public static RasterSheet load(final File file, final int cols, final int rows, final int width, final int height) throws IOException
+	{
+		final BufferedImage image = ImageIO.read(file);
+		
+		if (image == null)
+			throw new IOException("Not an image: " + file);
+		
+		final int[] pixels = image.getRGB(0, 0, image.getWidth(), image.getHeight(), null, 0, image.getWidth());
+		
+		return new RasterSheet(pixels, image.getWidth(), image.getHeight(), cols, rows, width, height);
+	}
+}
@@ -0,0 +1,47 @@
+package com.gamesbykevin.flood.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.gamesbykevin.flood.engine.BoardHelper;
+
+/**
+ * Measure the cost of compiling a board into a graph of regions, split in grouping the squares and building the graph.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RegionGraphBenchmark
+{
+	/**
+	 * Group the matching color squares into regions
+	 * @param board The board
+	 * @return The number of regions
+	 */
+	@Benchmark
+	public int group(final BoardState board)
+	{
+		return BoardHelper.groupSquares(board.model, board.groups);
+	}
+	
+	/**
+	 * Build the graph from the grouped squares
+	 * @param board The board
+	 * @return The number of edges
+	 */
+	@Benchmark
+	public int build(final BoardState board)
+	{
+		board.graph.build(board.model, board.graph.getRegions());
+		return board.graph.getEdges();
+	}
+}
@@ -0,0 +1,190 @@
+package com.gamesbykevin.flood.benchmark;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.gamesbykevin.flood.engine.BoardHelper;
+import com.gamesbykevin.flood.render.BoardPainter;
+import com.gamesbykevin.flood.render.DigitPainter;
+import com.gamesbykevin.flood.render.RasterTarget;
+import com.gamesbykevin.flood.render.RenderTarget;
+import com.gamesbykevin.flood.render.SwitchPainter;
+
+/**
+ * Measure drawing the board on a software raster: a new board (every square) and a move (only the flooded squares).<br>
+ * The board is drawn the same way as the game draws it on the device, so the results show how the draw cost
+ * grows with the size of the board. The row of switches and a number are measured the same way, they do not
+ * depend on the board.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RenderBenchmark
+{
+	/**
+	 * The width and height of the board on screen, same as the game
+	 */
+	public static final int BOARD_WIDTH = 480;
+	
+	/**
+	 * The raster the board is drawn on
+	 */
+	@State(Scope.Thread)
+	public static class RasterState
+	{
+		//where we draw
+		private final RasterTarget target = new RasterTarget(BOARD_WIDTH, BOARD_WIDTH);
+		
+		//the pixel size of a single square
+		private int dimension;
+		
+		/**
+		 * Load the sprite sheet and size the squares for the board
+		 * @param board The board we draw
+		 * @throws IOException if the sprite sheet can't be read
+		 */
+		@Setup(Level.Trial)
+		public void setup(final BoardState board) throws IOException
+		{
+			target.setSheet(RenderTarget.SHEET_COLORS, RasterSheets.loadColors());
+			dimension = BOARD_WIDTH / board.size;
+		}
+	}
+	
+	/**
+	 * The layers the switches and the numbers are drawn on, the same size as the game uses
+	 */
+	@State(Scope.Thread)
+	public static class LayerState
+	{
+		//the number we draw, it has the most digits
+		private static final int NUMBER = 1234567890;
+		
+		//the size each digit is drawn, same as the game
+		private static final int GLYPH_WIDTH = 45, GLYPH_HEIGHT = 65;
+		
+		//where we draw the switches
+		private final RasterTarget switches = new RasterTarget(BOARD_WIDTH, SwitchPainter.DIMENSION);
+		
+		//where we draw the number
+		private final RasterTarget number = new RasterTarget(DigitPainter.MAX_DIGITS * GLYPH_WIDTH, GLYPH_HEIGHT);
+		
+		//the digits of the number
+		private final int[] digits = new int[DigitPainter.MAX_DIGITS];
+		
+		/**
+		 * Load the sprite sheets
+		 * @throws IOException if a sprite sheet can't be read
+		 */
+		@Setup(Level.Trial)
+		public void setup() throws IOException
+		{
+			switches.setSheet(RenderTarget.SHEET_COLORS, RasterSheets.loadColors());
+			number.setSheet(RenderTarget.SHEET_NUMBERS, RasterSheets.loadNumbers());
+		}
+	}
+	
+	/**
+	 * A board where the same move is made before every call, so every draw measured is the same
+	 */
+	@State(Scope.Thread)
+	public static class MoveState
+	{
+		//the color of the move
+		private int color;
+		
+		/**
+		 * Pick the first color that floods a region
+		 * @param board The board we are playing
+		 */
+		@Setup(Level.Iteration)
+		public void pick(final BoardState board)
+		{
+			board.restore();
+			
+			color = 0;
+			
+			while (board.flood.getFrontierSize(color) == 0)
+				color++;
+		}
+		
+		/**
+		 * Make the move before every call
+		 * @param board The board we are playing
+		 */
+		@Setup(Level.Invocation)
+		public void move(final BoardState board)
+		{
+			board.restore();
+			BoardHelper.floodSquares(board.flood, color);
+		}
+	}
+	
+	/**
+	 * Draw every square, the same as a new board
+	 * @param board The board
+	 * @param raster Where we draw
+	 * @return The raster
+	 */
+	@Benchmark
+	public RasterTarget paintAll(final BoardState board, final RasterState raster)
+	{
+		raster.target.clear(0);
+		BoardPainter.paintAll(raster.target, board.model, 0, raster.dimension);
+		return raster.target;
+	}
+	
+	/**
+	 * Draw the flooded squares after a move
+	 * @param board The board
+	 * @param raster Where we draw
+	 * @param move The move that was made
+	 * @return The raster
+	 */
+	@Benchmark
+	public RasterTarget paintMove(final BoardState board, final RasterState raster, final MoveState move)
+	{
+		BoardPainter.paintFlooded(raster.target, board.model, board.flood, move.color, raster.dimension);
+		return raster.target;
+	}
+	
+	/**
+	 * Draw the row of switches, the same as when a switch is shown or hidden
+	 * @param layer Where we draw
+	 * @return The raster
+	 */
+	@Benchmark
+	public RasterTarget paintSwitches(final LayerState layer)
+	{
+		layer.switches.clear(0);
+		SwitchPainter.paint(layer.switches, BoardState.MAX_COLORS, 0, 0);
+		return layer.switches;
+	}
+	
+	/**
+	 * Draw a number, the same as when a number is not cached
+	 * @param layer Where we draw
+	 * @return The raster
+	 */
+	@Benchmark
+	public RasterTarget paintNumber(final LayerState layer)
+	{
+		layer.number.clear(0);
+		DigitPainter.paint(layer.number, layer.digits, DigitPainter.getDigits(LayerState.NUMBER, layer.digits), 0, 0, LayerState.GLYPH_WIDTH, LayerState.GLYPH_HEIGHT);
+		return layer.number;
+	}
+}
@@ -1,6 +1,8 @@
 package com.gamesbykevin.flood;
 
+import com.gamesbykevin.flood.metrics.StartupTrace;
 import com.gamesbykevin.flood.panel.GamePanel;
+import com.gamesbykevin.flood.storage.StorageExecutor;
 
 import android.app.Activity;
 import android.content.Intent;
@@ -46,6 +48,9 @@ public class MainActivity extends Activity
     @Override
     public void onCreate(Bundle savedInstanceState)
     {
+        //start timing the startup, it ends at the first menu frame
+        StartupTrace.begin();
+        
         //turn the title off
         super.requestWindowFeature(Window.FEATURE_NO_TITLE);
 
@@ -105,6 +110,9 @@ public class MainActivity extends Activity
     @Override
     public void onStop()
     {
+        //write the saved progress and settings, the app may be killed once stopped
+        StorageExecutor.flush();
+        
         //call parent
         super.onStop();
     }
@@ -115,6 +123,9 @@ public class MainActivity extends Activity
     @Override
     public void onDestroy()
     {
+        //write anything saved since we stopped
+        StorageExecutor.flush();
+        
         //finish the activity
         this.finish();
         
@@ -44,8 +44,9 @@ public class Splash extends Activity
         
         try
         {
-            //load the game assets
-            Assets.load(this);
+            //load the menu assets, the game assets continue loading in the background
+            Assets.loadMenu(this);
+            Assets.loadGame(this);
         }
         catch (Exception e)
         {
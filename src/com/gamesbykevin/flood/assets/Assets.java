@@ -5,7 +5,24 @@ import com.gamesbykevin.androidframework.resources.Files;
 import com.gamesbykevin.androidframework.resources.Font;
 import com.gamesbykevin.androidframework.resources.Images;
 
+import com.gamesbykevin.flood.metrics.StartupTrace;
+
 import android.app.Activity;
+import android.content.res.AssetManager;
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+import android.graphics.Typeface;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 /**
  * This class will contain all of our assets
@@ -130,44 +147,496 @@ public class Assets
     	InvalidLevelSelect, Lose, Switch1, Switch2, Switch3, Switch4, Switch5, Switch6, Win
     }
     
+    /**
+     * The key of each sprite atlas.<br>
+     * The sprites are ordered left to right, then top to bottom
+     */
+    public enum AtlasKey
+    {
+    	//the square colors, in the order of the board colors
+    	Colors(Assets.ImageGameKey.Colors, 3, 2, 88, 88),
+    	
+    	//the digits 0 - 9
+    	Numbers(Assets.ImageGameKey.Numbers, 10, 1, 55, 78);
+    	
+    	//the image of the atlas
+    	private final Assets.ImageGameKey image;
+    	
+    	//the grid of sprites
+    	private final int cols, rows, width, height;
+    	
+    	private AtlasKey(final Assets.ImageGameKey image, final int cols, final int rows, final int width, final int height)
+    	{
+    		this.image = image;
+    		this.cols = cols;
+    		this.rows = rows;
+    		this.width = width;
+    		this.height = height;
+    	}
+    }
+    
+    //the atlas of each key, created once the images are loaded
+    private static final SpriteAtlas[] ATLASES = new SpriteAtlas[AtlasKey.values().length];
+    
+    //the game images, each published once it is decoded and awaited
+    private static final AtomicReferenceArray<Bitmap> GAME_IMAGES = new AtomicReferenceArray<Bitmap>(ImageGameKey.values().length);
+    
+    //the game fonts, each published once it is created and awaited
+    private static final AtomicReferenceArray<Typeface> GAME_FONTS = new AtomicReferenceArray<Typeface>(FontGameKey.values().length);
+    
+    /**
+     * The number of workers decoding the game assets, each image is decoded by a task of its own
+     */
+    private static final int LOADER_THREADS = Math.max(2, Math.min(4, Runtime.getRuntime().availableProcessors()));
+    
+    //the workers decoding the game assets
+    private static ExecutorService executor;
+    
+    //the image of each key being decoded, null until requested
+    private static volatile Future<Bitmap>[] images;
+    
+    //the font of each key being created, null until requested
+    private static volatile Future<Typeface>[] fonts;
+    
+    //the activity the game assets are requested for, kept until the audio is registered
+    private static Activity loader;
+    
+    //are the game assets published and registered
+    private static boolean gameReady = false;
+    
     /**
      * Load all assets.<br>
-     * If an asset already exists, it won't be loaded again
+     * If an asset already exists, it won't be loaded again.
+     * This waits until the game assets are loaded
      * @param activity Object containing AssetManager needed to load assets
      * @throws Exception 
      */
     public static final void load(final Activity activity) throws Exception
     {
+    	//load the menu assets first
+    	loadMenu(activity);
+    	
+    	//load the game assets
+    	loadGame(activity);
+    	awaitGame();
+    }
+    
+    /**
+     * Load the assets needed by the menu, on the calling thread.<br>
+     * If an asset already exists, it won't be loaded again
+     * @param activity Object containing AssetManager needed to load assets
+     * @throws Exception 
+     */
+    public static final void loadMenu(final Activity activity) throws Exception
+    {
+    	long start = System.nanoTime();
+    	
         //load all images for the menu
         Images.load(activity, ImageMenuKey.values(), DIRECTORY_MENU_IMAGE, true);
+        StartupTrace.record(DIRECTORY_MENU_IMAGE, start);
+        
+        start = System.nanoTime();
         
         //load all fonts for the menu
         Font.load(activity, FontMenuKey.values(), DIRECTORY_MENU_FONT, true);
+        StartupTrace.record(DIRECTORY_MENU_FONT, start);
+        
+        start = System.nanoTime();
         
         //load all audio for the menu
         Audio.load(activity, AudioMenuKey.values(), DIRECTORY_MENU_AUDIO, true);
-        
-        //load images for the game
-        Images.load(activity, ImageGameKey.values(), DIRECTORY_GAME_IMAGE, true);
-        
-        //load all audio for the game
-        Audio.load(activity, AudioGameKey.values(), DIRECTORY_GAME_AUDIO, true);
-        
-        //load all fonts for the game
-        Font.load(activity, FontGameKey.values(), DIRECTORY_GAME_FONT, true);
+        StartupTrace.record(DIRECTORY_MENU_AUDIO, start);
+    }
+    
+    /**
+     * Start decoding the game assets in the background.<br>
+     * Each image and font is decoded by a task of its own, so the images are decoded in parallel,
+     * and each task has a future the asset can be awaited on. The workers never touch the registries of the framework.
+     * Nothing is done if the game assets are already loaded or loading
+     * @param activity Object containing AssetManager needed to load assets
+     */
+    public static final synchronized void loadGame(final Activity activity)
+    {
+    	//the game assets were already requested
+    	if (gameReady || images != null)
+    		return;
+    	
+    	if (executor == null)
+    	{
+    		executor = Executors.newFixedThreadPool(LOADER_THREADS, new ThreadFactory()
+    		{
+    			@Override
+    			public Thread newThread(final Runnable runnable)
+    			{
+    				final Thread thread = new Thread(runnable, "AssetLoader");
+    				
+    				//never keep the app alive
+    				thread.setDaemon(true);
+    				return thread;
+    			}
+    		});
+    	}
+    	
+    	final AssetManager manager = activity.getAssets();
+    	
+    	//list each directory once, the tasks are taken in order so a listing is always running before a decode waits on it
+    	final Future<String[]> imageFiles = executor.submit(new FileList(manager, DIRECTORY_GAME_IMAGE, ImageGameKey.values().length));
+    	final Future<String[]> fontFiles = executor.submit(new FileList(manager, DIRECTORY_GAME_FONT, FontGameKey.values().length));
+    	
+    	final Future<Bitmap>[] decoding = createFutures(ImageGameKey.values().length);
+    	
+    	for (int index = 0; index < decoding.length; index++)
+    	{
+    		decoding[index] = executor.submit(new ImageTask(manager, imageFiles, index));
+    	}
+    	
+    	final Future<Typeface>[] creating = createFutures(FontGameKey.values().length);
+    	
+    	for (int index = 0; index < creating.length; index++)
+    	{
+    		creating[index] = executor.submit(new FontTask(manager, fontFiles, index));
+    	}
+    	
+    	fonts = creating;
+    	images = decoding;
+    	loader = activity;
+    }
+    
+    /**
+     * Create an array of futures
+     * @param count The number of futures
+     * @return The array, every future is null
+     */
+    @SuppressWarnings("unchecked")
+    private static <T> Future<T>[] createFutures(final int count)
+    {
+    	return (Future<T>[])new Future[count];
+    }
+    
+    /**
+     * Lists the files of a directory, in the order of their file names.<br>
+     * This is the order the keys are declared in
+     */
+    private static final class FileList implements Callable<String[]>
+    {
+    	//the assets of the app
+    	private final AssetManager manager;
+    	
+    	//the directory
+    	private final String directory;
+    	
+    	//the number of keys
+    	private final int count;
+    	
+    	private FileList(final AssetManager manager, final String directory, final int count)
+    	{
+    		this.manager = manager;
+    		this.directory = directory;
+    		this.count = count;
+    	}
+    	
+    	@Override
+    	public String[] call() throws IOException
+    	{
+        	final String[] files = manager.list(directory);
+        	
+        	if (files == null || files.length < count)
+        		throw new IOException("Expected " + count + " files in " + directory);
+        	
+        	Arrays.sort(files);
+        	
+        	return Arrays.copyOf(files, count);
+    	}
+    }
+    
+    /**
+     * Decodes a single game image, the decode is recorded in the startup trace
+     */
+    private static final class ImageTask implements Callable<Bitmap>
+    {
+    	//the assets of the app
+    	private final AssetManager manager;
+    	
+    	//the files of the directory
+    	private final Future<String[]> files;
+    	
+    	//the index of the image
+    	private final int index;
+    	
+    	private ImageTask(final AssetManager manager, final Future<String[]> files, final int index)
+    	{
+    		this.manager = manager;
+    		this.files = files;
+    		this.index = index;
+    	}
+    	
+    	@Override
+    	public Bitmap call() throws Exception
+    	{
+    		final String path = DIRECTORY_GAME_IMAGE + "/" + files.get()[index];
+    		final long start = System.nanoTime();
+    		
+    		final Bitmap image;
+    		final InputStream input = manager.open(path);
+    		
+    		try
+    		{
+    			image = BitmapFactory.decodeStream(input);
+    		}
+    		finally
+    		{
+    			input.close();
+    		}
+    		
+    		if (image == null)
+    			throw new IOException("Unable to decode " + path);
+    		
+    		StartupTrace.record(path, start);
+    		return image;
+    	}
+    }
+    
+    /**
+     * Creates a single game font, the creation is recorded in the startup trace
+     */
+    private static final class FontTask implements Callable<Typeface>
+    {
+    	//the assets of the app
+    	private final AssetManager manager;
+    	
+    	//the files of the directory
+    	private final Future<String[]> files;
+    	
+    	//the index of the font
+    	private final int index;
+    	
+    	private FontTask(final AssetManager manager, final Future<String[]> files, final int index)
+    	{
+    		this.manager = manager;
+    		this.files = files;
+    		this.index = index;
+    	}
+    	
+    	@Override
+    	public Typeface call() throws Exception
+    	{
+    		final String path = DIRECTORY_GAME_FONT + "/" + files.get()[index];
+    		final long start = System.nanoTime();
+    		
+    		final Typeface font = Typeface.createFromAsset(manager, path);
+    		
+    		StartupTrace.record(path, start);
+    		return font;
+    	}
+    }
+    
+    /**
+     * Are the game assets loaded?
+     * @return true if every game asset is decoded (or failed to decode), false if still loading or never requested
+     */
+    public static final synchronized boolean isGameLoaded()
+    {
+    	if (gameReady)
+    		return true;
+    	
+    	if (images == null)
+    		return false;
+    	
+    	return (isDone(images) && isDone(fonts));
+    }
+    
+    /**
+     * Are the tasks done?
+     * @param tasks The tasks
+     * @return true if every task is done, false otherwise
+     */
+    private static boolean isDone(final Future<?>[] tasks)
+    {
+    	for (int index = 0; index < tasks.length; index++)
+    	{
+    		if (!tasks[index].isDone())
+    			return false;
+    	}
+    	
+    	return true;
+    }
+    
+    /**
+     * Wait until the game assets are loaded, and publish them.<br>
+     * This only blocks if the game assets are not decoded yet.
+     * The decoded images and fonts are published, and the audio and text files are registered in the framework,
+     * on the calling thread. Call this from the game thread, the thread that uses the game assets
+     * @throws Exception If the game assets were never requested or failed to load
+     */
+    public static final synchronized void awaitGame() throws Exception
+    {
+    	if (gameReady)
+    		return;
+    	
+    	if (images == null)
+    		throw new IllegalStateException("The game assets were never requested");
+    	
+    	try
+    	{
+    		//publish each image and font, the future makes it visible to this thread
+    		for (int index = 0; index < images.length; index++)
+    		{
+    			GAME_IMAGES.compareAndSet(index, null, images[index].get());
+    		}
+    		
+    		for (int index = 0; index < fonts.length; index++)
+    		{
+    			GAME_FONTS.compareAndSet(index, null, fonts[index].get());
+    		}
+    	}
+    	catch (ExecutionException e)
+    	{
+    		//request the assets again next time
+    		images = null;
+    		fonts = null;
+    		throw (e.getCause() instanceof Exception) ? (Exception)e.getCause() : e;
+    	}
+    	
+    	final long start = System.nanoTime();
+    	
+        //the framework decodes and registers every clip of the directory in one call, so the audio is only traced as a whole
+        Audio.load(loader, AudioGameKey.values(), DIRECTORY_GAME_AUDIO, true);
+        StartupTrace.record(DIRECTORY_GAME_AUDIO, start);
         
         //load all text files
-        Files.load(activity, TextKey.values(), DIRECTORY_TEXT, true);
+        Files.load(loader, TextKey.values(), DIRECTORY_TEXT, true);
+    	
+        //create the sprite atlases on the loaded images
+        for (AtlasKey key : AtlasKey.values())
+        {
+        	if (ATLASES[key.ordinal()] == null)
+        		ATLASES[key.ordinal()] = new SpriteAtlas(getImage(key.image), key.cols, key.rows, key.width, key.height);
+        }
+        
+        gameReady = true;
+        images = null;
+        fonts = null;
+        loader = null;
+    }
+    
+    /**
+     * Get a game image.<br>
+     * If the image is still decoding this blocks until that image is decoded, not the other game assets
+     * @param key The key of the image
+     * @return The image, null if the game assets were never requested or the image failed to decode
+     */
+    public static Bitmap getImage(final ImageGameKey key)
+    {
+    	final Bitmap image = GAME_IMAGES.get(key.ordinal());
+    	
+    	return (image != null) ? image : await(GAME_IMAGES, images, key.ordinal());
+    }
+    
+    /**
+     * Get a game font.<br>
+     * If the font is still being created this blocks until that font is created, not the other game assets
+     * @param key The key of the font
+     * @return The font, null if the game assets were never requested or the font failed to load
+     */
+    public static Typeface getFont(final FontGameKey key)
+    {
+    	final Typeface font = GAME_FONTS.get(key.ordinal());
+    	
+    	return (font != null) ? font : await(GAME_FONTS, fonts, key.ordinal());
+    }
+    
+    /**
+     * Wait for a single asset and publish it.<br>
+     * A failure is only printed here, it is thrown by {@link #awaitGame()}
+     * @param published The published assets
+     * @param tasks The tasks loading the assets, null if not requested
+     * @param index The index of the asset
+     * @return The asset, null if not requested or it failed to load
+     */
+    private static <T> T await(final AtomicReferenceArray<T> published, final Future<T>[] tasks, final int index)
+    {
+    	if (tasks == null)
+    		return published.get(index);
+    	
+    	try
+    	{
+    		published.compareAndSet(index, null, tasks[index].get());
+    	}
+    	catch (ExecutionException e)
+    	{
+    		e.printStackTrace();
+    	}
+    	catch (InterruptedException e)
+    	{
+    		//keep the interrupt for the caller
+    		Thread.currentThread().interrupt();
+    	}
+    	
+    	return published.get(index);
+    }
+    
+    /**
+     * Get the sprite atlas
+     * @param key The key of the atlas
+     * @return The atlas, shared by everything drawing its sprites
+     */
+    public static SpriteAtlas getAtlas(final AtlasKey key)
+    {
+    	return ATLASES[key.ordinal()];
     }
     
     /**
      * Recycle all assets
      */
-    public static void recycle()
+    public static synchronized void recycle()
     {
         try
         {
+        	//wait for the images still decoding, so they are recycled as well
+        	final Future<Bitmap>[] decoding = images;
+        	
+        	if (decoding != null)
+        	{
+        		for (int index = 0; index < decoding.length; index++)
+        		{
+        			try
+        			{
+        				GAME_IMAGES.compareAndSet(index, null, decoding[index].get());
+        			}
+        			catch (ExecutionException e)
+        			{
+        				e.printStackTrace();
+        			}
+        		}
+        		
+        		images = null;
+        		fonts = null;
+        		loader = null;
+        	}
+        	
             Images.dispose();
+            
+            for (int index = 0; index < GAME_IMAGES.length(); index++)
+            {
+            	final Bitmap image = GAME_IMAGES.getAndSet(index, null);
+            	
+            	if (image != null)
+            		image.recycle();
+            }
+            
+            for (int index = 0; index < GAME_FONTS.length(); index++)
+            {
+            	GAME_FONTS.set(index, null);
+            }
+            
+            //the atlases use the images that were just recycled
+            for (int index = 0; index < ATLASES.length; index++)
+            {
+            	ATLASES[index] = null;
+            }
+            
+            gameReady = false;
+            
             Font.dispose();
             Audio.dispose();
             Files.dispose();
@@ -0,0 +1,76 @@
+package com.gamesbykevin.flood.assets;
+
+import android.graphics.Bitmap;
+import android.graphics.Rect;
+
+/**
+ * An image containing several sprites laid out on a grid.<br>
+ * Each sprite is a region of the shared image, so no bitmap is created per sprite.
+ * An atlas never changes once created and can be shared by every object drawing its sprites.
+ * @author GOD
+ */
+public final class SpriteAtlas
+{
+    //the image containing every sprite
+    private final Bitmap image;
+
+    //the bounds of each region (left, top, right, bottom)
+    private final int[] regions;
+
+    /**
+     * Create an atlas of sprites of the same size, ordered left to right, then top to bottom
+     * @param image The image containing every sprite
+     * @param cols The number of columns of sprites
+     * @param rows The number of rows of sprites
+     * @param width The width of each sprite
+     * @param height The height of each sprite
+     */
+    public SpriteAtlas(final Bitmap image, final int cols, final int rows, final int width, final int height)
+    {
+        this.image = image;
+        this.regions = new int[cols * rows * 4];
+
+        int index = 0;
+
+        for (int row = 0; row < rows; row++)
+        {
+            for (int col = 0; col < cols; col++)
+            {
+                regions[index++] = col * width;
+                regions[index++] = row * height;
+                regions[index++] = (col + 1) * width;
+                regions[index++] = (row + 1) * height;
+            }
+        }
+    }
+
+    /**
+     * Get the image
+     * @return The image containing every sprite
+     */
+    public Bitmap getImage()
+    {
+        return this.image;
+    }
+
+    /**
+     * Get the count
+     * @return The number of sprites in the atlas
+     */
+    public int getCount()
+    {
+        return (this.regions.length / 4);
+    }
+
+    /**
+     * Assign the bounds of the region to the rectangle
+     * @param region The index of the sprite
+     * @param bounds The rectangle we assign the bounds of the sprite to
+     */
+    public void getRegion(final int region, final Rect bounds)
+    {
+        final int index = region * 4;
+
+        bounds.set(regions[index], regions[index + 1], regions[index + 2], regions[index + 3]);
+    }
+}
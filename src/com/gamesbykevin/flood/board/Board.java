@@ -1,11 +1,24 @@
 package com.gamesbykevin.flood.board;
 
 import com.gamesbykevin.androidframework.base.Entity;
-import com.gamesbykevin.flood.board.switches.Switch;
 import com.gamesbykevin.flood.board.switches.Switches;
+import com.gamesbykevin.flood.engine.BoardFactory;
+import com.gamesbykevin.flood.engine.BoardModel;
+import com.gamesbykevin.flood.engine.BoardPregenerator;
+import com.gamesbykevin.flood.engine.BoardSnapshot;
+import com.gamesbykevin.flood.engine.FloodEngine;
+import com.gamesbykevin.flood.engine.GameEngine;
+import com.gamesbykevin.flood.engine.LevelDescriptor;
+import com.gamesbykevin.flood.engine.SolutionCache;
+import com.gamesbykevin.flood.metrics.Metrics;
 import com.gamesbykevin.flood.panel.GamePanel;
+import com.gamesbykevin.flood.render.BoardPainter;
+import com.gamesbykevin.flood.render.CanvasTarget;
+import com.gamesbykevin.flood.solver.Solver;
 
+import android.graphics.Bitmap;
 import android.graphics.Canvas;
+import android.graphics.Color;
 import android.graphics.Rect;
 import android.view.MotionEvent;
 
@@ -35,67 +48,104 @@ public class Board extends Entity implements IBoard
 	public enum Colors
 	{
 		Green, Red, Blue,
-		White, Purple, Yellow
+		White, Purple, Yellow;
+		
+		//cached copy of the values so we don't create a new array on every lookup
+		private static final Colors[] VALUES = values();
+		
+		/**
+		 * Get the color of the specified index
+		 * @param index The color index
+		 * @return The color with the matching ordinal
+		 */
+		public static Colors get(final int index)
+		{
+			return VALUES[index];
+		}
 	}
 	
-	//the board containing our colors
-	private Square[][] key;
-	
 	//the total number of colors
 	private int total;
 	
-	//the current color
-	private Colors current;
-	
-	//did we solve
-	private boolean win = false;
-	
 	//the button switches we can click
 	private Switches switches;
 	
-	//the maximum number of allowed attempts to resolve
-	private int max = 1;
+	//where the squares are drawn, targets the layer
+	private final CanvasTarget target = new CanvasTarget();
 	
 	//has the board been generated
 	private boolean generated = false;
 	
+	//the offscreen layer where the squares are drawn
+	private Bitmap layer;
+	
+	//the canvas to draw on the layer
+	private Canvas layerCanvas;
+	
+	//the number of attempts when the layer was last drawn
+	private int painted = REPAINT_ALL;
+	
+	//the layer needs every square drawn
+	private static final int REPAINT_ALL = -1;
+	
+	//the rules of the game, the board is only a view of the engine
+	private final GameEngine engine;
+	
+	//creates the boards we are likely to play next in the background
+	private BoardPregenerator pregenerator;
+	
 	/**
 	 * Create a new board
 	 */
 	public Board()
 	{
-		//setup default animations
-		Switch.setupAnimation(this, null);
-		
 		//create the switches container
 		this.switches = new Switches();
+		
+		//the engine and the background board creation share the solutions
+		final SolutionCache cache = new SolutionCache();
+		
+		//create the engine for all available colors
+		this.engine = new GameEngine(Colors.values().length, new BoardFactory(Colors.values().length, new Solver(), cache));
+		
+		//create the background board creation for all available colors
+		this.pregenerator = new BoardPregenerator(new BoardFactory(Colors.values().length, new Solver(), cache));
 	}
 	
 	/**
-	 * Assign the current color
-	 * @param current The current color we have flooded
+	 * Get the current color
+	 * @return The current color that is flooding the board
 	 */
-	public void setCurrent(final Colors current)
+	public Colors getCurrent()
 	{
-		this.current = current;
+		return Colors.get(getEngine().getCurrent());
 	}
 	
 	/**
-	 * Get the current color
-	 * @return The current color that is flooding the board
+	 * Get the engine
+	 * @return The object containing the rules of the game
 	 */
-	public Colors getCurrent()
+	public GameEngine getEngine()
 	{
-		return this.current;
+		return this.engine;
 	}
 	
 	/**
-	 * Get the key of the board
-	 * @return The key containing all the squares on our board
+	 * Get the flood engine
+	 * @return The object tracking the flooded area of the board
 	 */
-	public Square[][] getKey()
+	public FloodEngine getFlood()
 	{
-		return this.key;
+		return getEngine().getFlood();
+	}
+	
+	/**
+	 * Get the model of the board
+	 * @return The model containing all the squares on our board
+	 */
+	public BoardModel getModel()
+	{
+		return getEngine().getModel();
 	}
 	
 	@Override
@@ -127,14 +177,26 @@ public class Board extends Entity implements IBoard
 	{
 		super.dispose();
 		
-		if (key != null)
-			key = null;
-		
 		if (switches != null)
 		{
 			switches.dispose();
 			switches = null;
 		}
+		
+		if (pregenerator != null)
+		{
+			pregenerator.shutdown();
+			pregenerator = null;
+		}
+		
+		if (layer != null)
+		{
+			layer.recycle();
+			layer = null;
+		}
+		
+		layerCanvas = null;
+		target.setCanvas(null, 0, 0);
 	}
 	
 	/**
@@ -143,112 +205,147 @@ public class Board extends Entity implements IBoard
 	 */
 	public boolean hasWin()
 	{
-		return this.win;
+		return getEngine().hasWin();
+	}
+	
+	/**
+	 * Did we lose?
+	 * @return true if we reached the number of allowed attempts without a win, false otherwise
+	 */
+	public boolean hasLost()
+	{
+		return getEngine().hasLost();
+	}
+	
+	/**
+	 * Make a move.<br>
+	 * The move is only made if the engine allows it
+	 * @param color The color we want to flood with
+	 * @return true if the move was made, false otherwise
+	 */
+	public boolean move(final Colors color)
+	{
+		final long start = System.nanoTime();
+		
+		final boolean result = getEngine().move(color.ordinal());
+		
+		//only time the moves that flood the board
+		if (result)
+			Metrics.MOVE.record(System.nanoTime() - start);
+		
+		return result;
+	}
+	
+	/**
+	 * Create a board in the background, so it is ready when we reset with the same descriptor
+	 * @param descriptor The seed, size and colors of the board
+	 */
+	public void prepare(final LevelDescriptor descriptor)
+	{
+		//the current board can be restarted, no need to create it again
+		if (isCurrent(descriptor))
+			return;
+		
+		if (pregenerator != null)
+			pregenerator.request(descriptor);
 	}
 	
 	/**
-	 * Flag win.<br>
-	 * A win means all squares have been flooded
-	 * @param win true if all squares have been flooded, false otherwise
+	 * Is the board already created?
+	 * @param descriptor The seed, size and colors of the board
+	 * @return true if a reset with the descriptor will not have to create a board, false otherwise
+	 */
+	public boolean isPrepared(final LevelDescriptor descriptor)
+	{
+		return (isCurrent(descriptor) || (pregenerator != null && pregenerator.isReady(descriptor)));
+	}
+	
+	/**
+	 * Is this the board we are currently playing?
+	 * @param descriptor The seed, size and colors of the board
+	 * @return true = yes, false = no
 	 */
-	public void setWin(final boolean win)
+	private boolean isCurrent(final LevelDescriptor descriptor)
 	{
-		this.win = win;
+		return (getEngine().getSnapshot() != null && getEngine().getSnapshot().getDescriptor().equals(descriptor));
 	}
 	
 	/**
-	 * Reset the board with the specified
+	 * Reset the board with the specified, using a random seed
 	 * @param size The size of the board (column, row)
 	 * @param total Number of colors, if the total exceeds the # of colors the max will be assigned
 	 */
 	@Override
-	public void reset(final int size, int total)
+	public void reset(final int size, final int total)
+	{
+		reset(new LevelDescriptor(GamePanel.RANDOM.nextLong(), LevelDescriptor.NO_LEVEL, size, Math.min(total, Colors.values().length)));
+	}
+	
+	/**
+	 * Reset the board.<br>
+	 * If this is the current board it is restarted, if it was created in the background it is used, 
+	 * else a new board is created here
+	 * @param descriptor The seed, size and colors of the board
+	 */
+	public void reset(final LevelDescriptor descriptor)
 	{
 		//flag generated false
 		setGenerated(false);
 		
-		//flag win false
-		setWin(false);
-		
-		//make sure we don't exceed the number of colors available
-		if (total > Colors.values().length)
-			total = Colors.values().length;
+		//time how long it takes for the board to be ready
+		final long start = System.nanoTime();
 		
 		//store the total number of colors
-		this.total = total;
+		this.total = descriptor.getColors();
 		
 		//assign the dimension of a single square
-		setDimension(BOUNDS.width() / size);
+		setDimension(BOUNDS.width() / descriptor.getSize());
 		
 		//the dimensions for each square will be the same
 		setWidth(getDimension());
 		setHeight(getDimension());
 		
-		//create new key first
-		this.key = new Square[size][size];
-		
-		//assign the max number of allowed attempts depending on the size and # of different colors
-		setMax((int)Math.ceil(25 * ((size + size) * getTotal()) / 168) + 1);
-		
-		//continue to loop until board is created using all in play colors
-		while (true)
+		if (isCurrent(descriptor))
+		{
+			//restart the current board
+			getEngine().load(getEngine().getSnapshot());
+		}
+		else
 		{
-			//pick random color
-			for (int row = 0; row < key.length; row++)
+			//check if the board was already created in the background
+			final BoardSnapshot snapshot = (pregenerator != null) ? pregenerator.take(descriptor) : null;
+			
+			if (snapshot != null)
 			{
-				for (int col = 0; col < key[0].length; col++)
-				{
-					//pick random color
-					final Colors color = Colors.values()[GamePanel.RANDOM.nextInt(getTotal())];
-					
-					//create a new square with the color
-					getKey()[row][col] = new Square(color);
-				}
+				//play the board that is ready
+				getEngine().load(snapshot);
+			}
+			else
+			{
+				//create and solve a new board
+				getEngine().reset(descriptor);
 			}
-			
-			//make sure that each color is used on the board
-			if (BoardHelper.getUniqueColorCount(getKey()) >= getTotal())
-				break;
 		}
 		
-		//assign the current color as the start location
-		setCurrent(getKey()[0][0].getColor());
-		
-		//mark the start location as flooded
-		BoardHelper.floodSquare(getKey()[0][0], getKey()[0][0]);
-		
-		//flood the opposite corner
-		BoardHelper.floodSquare(getKey()[0][0], getKey()[key.length - 1][key[0].length - 1]);
-		
-		//give the neighbor squares that have a matching color the same id
-		BoardHelper.groupSquares(getKey());
-		
-		//flood the squares
-		BoardHelper.floodSquares(getKey(), getCurrent());
-		
 		//reset the switches
 		getSwitches().reset(getTotal(), getDimension(), getCurrent());
 		
+		//the layer has to be drawn for the new board
+		painted = REPAINT_ALL;
+		
+		Metrics.GENERATE.record(System.nanoTime() - start);
+		
 		//flag generated true
 		setGenerated(true);
 	}
 	
-	/**
-	 * Set the maximum amount of moves to solve the puzzle
-	 * @param max The number of allowed attempts to solve
-	 */
-	protected void setMax(final int max)
-	{
-		this.max = max;
-	}
-	
 	/**
 	 * Get the max.
 	 * @return The maximum amount of attempts to solve the puzzle
 	 */
 	public int getMax()
 	{
-		return this.max;
+		return getEngine().getMax();
 	}
 	
 	/**
@@ -257,7 +354,7 @@ public class Board extends Entity implements IBoard
 	 */
 	public int getAttempts()
 	{
-		return getSwitches().getAttempts();
+		return getEngine().getAttempts();
 	}
 	
 	/**
@@ -320,11 +417,13 @@ public class Board extends Entity implements IBoard
 	 */
 	public boolean canRenderSwitches()
 	{
-		return (getAttempts() < getMax() && !BoardHelper.hasWin(getKey()));
+		return (!getEngine().isOver());
 	}
 	
 	/**
-	 * Render the board
+	 * Render the board.<br>
+	 * The squares are drawn on an offscreen layer, which is only updated when the board changes,
+	 * so every frame is a single bitmap draw no matter the size of the board
 	 * @param canvas
 	 * @throws Exception
 	 */
@@ -335,21 +434,33 @@ public class Board extends Entity implements IBoard
 		if (!isGenerated())
 			return;
 		
-		//check every square
-		for (int row = 0; row < getKey().length; row++)
+		//create the layer the first time
+		if (layer == null)
 		{
-			for (int col = 0; col < getKey()[0].length; col++)
-			{
-				//assign coordinates
-				setX(BOUNDS.left + (col * getDimension()));
-				setY(BOUNDS.top + (row * getDimension()));
-				
-				//assign animation
-				getSpritesheet().setKey(getKey()[row][col].getColor());
-				
-				//render the current animation
-				super.render(canvas);
-			}
+			layer = Bitmap.createBitmap(BOUNDS.width(), BOUNDS.height(), Bitmap.Config.ARGB_8888);
+			layerCanvas = new Canvas(layer);
+			target.setCanvas(layerCanvas, layer.getWidth(), layer.getHeight());
+			painted = REPAINT_ALL;
+		}
+		
+		if (painted == REPAINT_ALL)
+		{
+			//clear the previous board
+			layer.eraseColor(Color.TRANSPARENT);
+			
+			//draw every square, row by row
+			BoardPainter.paintAll(target, getModel(), getCurrent().ordinal(), getDimension());
+		}
+		else if (painted != getAttempts())
+		{
+			//a move only changes the color of the flooded squares
+			BoardPainter.paintFlooded(target, getModel(), getFlood(), getCurrent().ordinal(), getDimension());
 		}
+		
+		//the layer is up to date
+		painted = getAttempts();
+		
+		//draw the layer
+		canvas.drawBitmap(layer, BOUNDS.left, BOUNDS.top, null);
 	}
 }
\ No newline at end of file
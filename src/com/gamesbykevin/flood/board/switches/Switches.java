@@ -2,61 +2,51 @@ package com.gamesbykevin.flood.board.switches;
 
 import com.gamesbykevin.androidframework.resources.Audio;
 import com.gamesbykevin.androidframework.resources.Disposable;
-import com.gamesbykevin.androidframework.resources.Images;
 import com.gamesbykevin.flood.assets.Assets;
-import com.gamesbykevin.flood.board.BoardHelper;
+import com.gamesbykevin.flood.assets.SpriteAtlas;
 import com.gamesbykevin.flood.board.Board;
 import com.gamesbykevin.flood.board.Board.Colors;
 import com.gamesbykevin.flood.panel.GamePanel;
+import com.gamesbykevin.flood.render.CanvasTarget;
+import com.gamesbykevin.flood.render.SwitchPainter;
 
+import android.graphics.Bitmap;
 import android.graphics.Canvas;
+import android.graphics.Color;
 
 public class Switches implements Disposable
 {
 	//list of switches to change the color
 	private Switch[] switches;
-
-	/**
-	 * The default size of a switch
-	 */
-	private static final int SWITCH_DIMENSION = 64;
 	
-	/**
-	 * The pixel space between each switch
-	 */
-	private static final int SWITCH_PADDING = 15;
+	//where the switches are drawn, targets the layer
+	private final CanvasTarget target = new CanvasTarget();
+	
+	//the offscreen layer where the visible switches are drawn, re-used until a switch is shown or hidden
+	private Bitmap layer;
+	
+	//the canvas to draw on the layer
+	private Canvas layerCanvas;
+	
+	//the hidden switch when the layer was last drawn
+	private int painted = REPAINT_ALL;
+	
+	//the atlas when the layer was last drawn
+	private SpriteAtlas paintedAtlas;
+	
+	//the layer has to be drawn
+	private static final int REPAINT_ALL = -2;
 	
 	/**
 	 * The y-coordinate where the switches are rendered
 	 */
 	private static final int SWITCH_Y = 676;
 	
-	//the number of attempts
-	private int attempts = 0;
-	
 	public Switches()
 	{
 		//default constructor
 	}
 	
-	/**
-	 * Get the attempts
-	 * @return The number of attempts used to solve the game
-	 */
-	public int getAttempts()
-	{
-		return this.attempts;
-	}
-	
-	/**
-	 * Set the attempts
-	 * @param attempts The number of attempts used to solve the game
-	 */
-	public void setAttempts(final int attempts)
-	{
-		this.attempts = attempts;
-	}
-	
 	@Override
 	public void dispose() 
 	{
@@ -73,6 +63,13 @@ public class Switches implements Disposable
 			
 			switches = null;
 		}
+		
+		if (layer != null)
+		{
+			layer.recycle();
+			layer = null;
+			layerCanvas = null;
+		}
 	}
 
 	/**
@@ -106,7 +103,7 @@ public class Switches implements Disposable
 	}
 
 	/**
-	 * Check if any switches have been clicked and if so update the board
+	 * Check if any switches have been clicked and if so make the move on the board
 	 * @param board The board in play
 	 */
 	public void update(final Board board) 
@@ -120,56 +117,19 @@ public class Switches implements Disposable
 			//if we clicked this switch
 			if (tmp.isClicked())
 			{
-				//play sound effect
-				switch (tmp.getColor())
-				{
-					case Green:
-						Audio.play(Assets.AudioGameKey.Switch1);
-						break;
-						
-					case Red:
-						Audio.play(Assets.AudioGameKey.Switch2);
-						break;
-						
-					case Yellow:
-						Audio.play(Assets.AudioGameKey.Switch3);
-						break;
-						
-					case Blue:
-						Audio.play(Assets.AudioGameKey.Switch4);
-						break;
-						
-					case Purple:
-						Audio.play(Assets.AudioGameKey.Switch5);
-						break;
-						
-					case White:
-					default:
-						Audio.play(Assets.AudioGameKey.Switch6);
-						break;
-				}
-				
-				//increase our attempt count
-				setAttempts(getAttempts() + 1);
-				
-				//flood the squares on the board
-				BoardHelper.floodSquares(board.getKey(), tmp.getColor());
-				
-				//do we have win
-				board.setWin(BoardHelper.hasWin(board.getKey()));
-				
-				//hide button switch
-				tmp.setVisible(false);
-				
-				//flag that something was clicked
-				clicked = true;
-				
-				//set the new flood color
-				board.setCurrent(tmp.getColor());
-			
 				//flag false
 				tmp.setClicked(false);
 				
+				//make the move, the engine decides if it is allowed
+				if (board.move(tmp.getColor()))
+				{
+					//play sound effect for the move
+					playSound(tmp.getColor());
+					
+					//flag that something was clicked
+					clicked = true;
+				}
+				
 				//exit loop
 				break;
 			}
@@ -184,6 +144,41 @@ public class Switches implements Disposable
 			}
 		}
 	}
+	
+	/**
+	 * Play the sound effect for the specified color
+	 * @param color The color of the switch
+	 */
+	private void playSound(final Colors color)
+	{
+		switch (color)
+		{
+			case Green:
+				Audio.play(Assets.AudioGameKey.Switch1);
+				break;
+				
+			case Red:
+				Audio.play(Assets.AudioGameKey.Switch2);
+				break;
+				
+			case Yellow:
+				Audio.play(Assets.AudioGameKey.Switch3);
+				break;
+				
+			case Blue:
+				Audio.play(Assets.AudioGameKey.Switch4);
+				break;
+				
+			case Purple:
+				Audio.play(Assets.AudioGameKey.Switch5);
+				break;
+				
+			case White:
+			default:
+				Audio.play(Assets.AudioGameKey.Switch6);
+				break;
+		}
+	}
 
 	/**
 	 * Reset the switches with the specified parameters
@@ -193,37 +188,31 @@ public class Switches implements Disposable
 	 */
 	public void reset(final int total, final int dimension, final Colors current) 
 	{
-		//reset attempts
-		setAttempts(0);
-		
 		//create new array for the button switches
 		this.switches = new Switch[total];
 		
-		//calculate the start coordinate
-		int x = (GamePanel.WIDTH / 2) - (((total * SWITCH_DIMENSION) + ((total - 1) * SWITCH_PADDING)) / 2);
-
+		//the number of switches may have changed
+		this.painted = REPAINT_ALL;
+		
 		//render the buttons
 		for (int index = 0; index < total; index++)
 		{
 			//create a new switch of the specified color
 			this.switches[index] = new Switch(
-				Colors.values()[index],
-				Images.getImage(Assets.ImageGameKey.Colors)
+				Colors.get(index),
+				Assets.getImage(Assets.ImageGameKey.Colors)
 			);
 			
-			//set location
-			this.switches[index].setX(x);
+			//set location, the same as the painter draws it
+			this.switches[index].setX(SwitchPainter.getX(GamePanel.WIDTH, total, index));
 			this.switches[index].setY(SWITCH_Y);
 			
 			//set the dimensions
-			this.switches[index].setWidth(SWITCH_DIMENSION);
-			this.switches[index].setHeight(SWITCH_DIMENSION);
+			this.switches[index].setWidth(SwitchPainter.DIMENSION);
+			this.switches[index].setHeight(SwitchPainter.DIMENSION);
 			
 			//update the boundary to detect clicks
 			this.switches[index].updateBounds();
-			
-			//change the coordinate for the next switch
-			x += (SWITCH_DIMENSION + SWITCH_PADDING);
 		}
 		
 		//assign the current color and hide the current switch
@@ -241,12 +230,45 @@ public class Switches implements Disposable
 		}
 	}
 
+	/**
+	 * Render the visible switches.<br>
+	 * The switches are drawn on an offscreen layer, which is only updated when a switch is shown or hidden
+	 * @param canvas
+	 * @throws Exception
+	 */
 	public void render(Canvas canvas) throws Exception 
 	{
-		//render the switches
-		for (Switch tmp : switches)
+		//the switch of the current color is hidden
+		int hidden = SwitchPainter.NONE;
+		
+		for (int index = 0; index < switches.length; index++)
 		{
-			tmp.render(canvas);
+			if (!switches[index].isVisible())
+				hidden = index;
 		}
+		
+		//create the layer the first time
+		if (layer == null)
+		{
+			layer = Bitmap.createBitmap(GamePanel.WIDTH, SwitchPainter.DIMENSION, Bitmap.Config.ARGB_8888);
+			layerCanvas = new Canvas(layer);
+			target.setCanvas(layerCanvas, layer.getWidth(), layer.getHeight());
+			painted = REPAINT_ALL;
+		}
+		
+		final SpriteAtlas atlas = Assets.getAtlas(Assets.AtlasKey.Colors);
+		
+		//draw the switches again only if they changed
+		if (painted != hidden || paintedAtlas != atlas)
+		{
+			layer.eraseColor(Color.TRANSPARENT);
+			SwitchPainter.paint(target, switches.length, hidden, 0);
+			
+			painted = hidden;
+			paintedAtlas = atlas;
+		}
+		
+		//draw the layer
+		canvas.drawBitmap(layer, 0, SWITCH_Y, null);
 	}
 }
\ No newline at end of file
@@ -0,0 +1,121 @@
+package com.gamesbykevin.flood.engine;
+
+import com.gamesbykevin.flood.solver.Solution;
+import com.gamesbykevin.flood.solver.Solver;
+
+/**
+ * Creates and solves new boards.<br>
+ * The factory keeps scratch objects that are re-used for every board,
+ * so a single factory must only be used by one thread at a time.
+ */
+public final class BoardFactory
+{
+	/**
+	 * The extra moves allowed compared to the solution, as a ratio of the solution length
+	 */
+	public static final float MOVES_SLACK_RATIO = 0.1f;
+
+	/**
+	 * The minimum number of extra moves allowed compared to the solution
+	 */
+	public static final int MOVES_SLACK_MINIMUM = 1;
+
+	//the model used to create the board
+	private final PackedBoardModel model;
+
+	//disjoint set used to group the matching color squares
+	private final UnionFind groups;
+
+	//the flood engine used to solve the board
+	private final FloodEngine flood;
+
+	//finds the least number of moves to solve the board
+	private final Solver solver;
+
+	//the solutions of the boards already created
+	private final SolutionCache cache;
+
+	//the random number generator, seeded for every board
+	private final SplitMix64 random;
+
+	/**
+	 * Create a new factory with its own solver and cache
+	 * @param maxColors The maximum number of colors that can be on a board
+	 */
+	public BoardFactory(final int maxColors)
+	{
+		this(maxColors, new Solver(), new SolutionCache());
+	}
+
+	/**
+	 * Create a new factory
+	 * @param maxColors The maximum number of colors that can be on a board
+	 * @param solver The solver used to determine the number of allowed attempts
+	 * @param cache The solutions of the boards already created, this may be shared with other factories
+	 */
+	public BoardFactory(final int maxColors, final Solver solver, final SolutionCache cache)
+	{
+		this.model = new PackedBoardModel();
+		this.groups = new UnionFind(0);
+		this.flood = new FloodEngine(maxColors);
+		this.solver = solver;
+		this.cache = cache;
+		this.random = new SplitMix64(0);
+	}
+
+	/**
+	 * Create and solve a new board.<br>
+	 * If the board was solved before, the solution in the cache is used
+	 * @param descriptor The seed, size and colors of the board
+	 * @return The board ready to be played
+	 */
+	public BoardSnapshot create(final LevelDescriptor descriptor)
+	{
+		final int size = descriptor.getSize();
+		final int colors = descriptor.getColors();
+
+		//the same seed always creates the same board
+		random.reset(descriptor.getSeed());
+
+		//create a new board using all in play colors
+		BoardHelper.generate(model, size, colors, random);
+
+		//give the neighbor squares that have a matching color the same region
+		final int regions = BoardHelper.groupSquares(model, groups);
+
+		//the snapshot needs its own copy of the squares and the graph
+		final int[] cells = model.copy();
+		final RegionGraph graph = new RegionGraph();
+		graph.build(model, regions);
+
+		//check if the board was solved before
+		Solution solution = cache.get(descriptor);
+
+		if (solution == null)
+		{
+			//the flood starts at both flooded corners
+			flood.reset(model, graph);
+			flood.seed(0, 0);
+			flood.seed(size - 1, size - 1);
+
+			//solve the board to determine the number of moves needed
+			solution = solver.solve(graph, flood, colors);
+
+			//store the solution for the next time
+			cache.put(descriptor, solution);
+		}
+
+		return new BoardSnapshot(descriptor, cells, graph, solution, getMax(solution));
+	}
+
+	/**
+	 * Get the max.<br>
+	 * The solver budget counts work rather than time, so the same board always gets the same max on every device
+	 * @param solution The solution of the board
+	 * @return The number of allowed attempts, based on the solution plus some extra moves
+	 */
+	public static int getMax(final Solution solution)
+	{
+		return solution.getMoves() + Math.max(MOVES_SLACK_MINIMUM, (int)Math.ceil(solution.getMoves() * MOVES_SLACK_RATIO));
+	}
+}
@@ -0,0 +1,186 @@
+package com.gamesbykevin.flood.engine;
+
+public final class BoardHelper 
+{
+	/**
+	 * Generate a new board.<br>
+	 * Every square is assigned a random color, afterwards the start (top-left) and the opposite corner are flooded with the color of the start.
+	 * If a color is missing, a random square of a color used more than once is changed to the missing color,
+	 * so the board never has to be created again and the same random sequence always creates the same board.
+	 * @param model The model where the board is stored
+	 * @param size The size of the board (column, row)
+	 * @param colors The number of colors
+	 * @param random Object used to make random decisions
+	 */
+	public static void generate(final BoardModel model, final int size, final int colors, final SplitMix64 random)
+	{
+		//reset the model first
+		model.reset(size, size);
+		
+		//pick random color for every square
+		for (int index = 0; index < model.getSize(); index++)
+		{
+			model.setColor(index, random.nextInt(colors));
+		}
+		
+		//the index of the start and the opposite corner
+		final int start = model.getIndex(0, 0);
+		final int corner = model.getIndex(size - 1, size - 1);
+		
+		//mark the start location as flooded
+		floodSquare(model, start, start);
+		
+		//flood the opposite corner
+		floodSquare(model, start, corner);
+		
+		//count the squares of each color once, the counts are kept up to date as squares change
+		final int[] counts = new int[colors];
+		
+		for (int index = 0; index < model.getSize(); index++)
+		{
+			counts[model.getColor(index)]++;
+		}
+		
+		//add every color that is missing
+		for (int color = 0; color < colors; color++)
+		{
+			if (counts[color] > 0)
+				continue;
+			
+			while (true)
+			{
+				final int index = random.nextInt(model.getSize());
+				
+				//the corners have to keep the start color, and we can't remove the last square of a color
+				if (index == start || index == corner || counts[model.getColor(index)] < 2)
+					continue;
+				
+				counts[model.getColor(index)]--;
+				counts[color]++;
+				model.setColor(index, color);
+				break;
+			}
+		}
+	}
+	
+	/**
+	 * Do we have a win?<br>
+	 * The flood engine counts the flooded squares as they are absorbed, so no scan of the board is needed
+	 * @param flood The flood engine of the board
+	 * @return true if every square has been flooded, false otherwise
+	 */
+	public static boolean hasWin(final FloodEngine flood)
+	{
+		return flood.hasWin();
+	}
+	
+	/**
+	 * Flood the board.<br>
+	 * Only the regions in the frontier of the specified color are absorbed into the flooded area
+	 * @param flood The flood engine of the board
+	 * @param color The index of the desired flood color we are changing to
+	 * @return The number of squares that were flooded
+	 */
+	public static int floodSquares(final FloodEngine flood, final int color)
+	{
+		return flood.flood(color);
+	}
+	
+	/**
+	 * Flood a single square
+	 * @param model The model containing all the squares
+	 * @param parent The index of the square we are to copy from
+	 * @param child The index of the square we want to flood
+	 */
+	public static void floodSquare(final BoardModel model, final int parent, final int child)
+	{
+		//flag child as flooded
+		model.setFlooded(child, true);
+		
+		//change the color of the child to match the parent
+		model.setColor(child, model.getColor(parent));
+		
+		//the child will belong to the parent group
+		model.setRegion(child, model.getRegion(parent));
+	}
+	
+	/**
+	 * Group the matching color squares.<br>
+	 * Every square is joined with the west and north neighbor if the colors match, 
+	 * which builds every color region in a single pass. 
+	 * Afterwards each square is assigned the index of the region it belongs to
+	 * @param model The model containing all the squares
+	 * @param groups Disjoint set used to join the squares, it will be reset here
+	 * @return The total number of regions on the board
+	 */
+	public static int groupSquares(final BoardModel model, final UnionFind groups)
+	{
+		final int cols = model.getCols();
+		
+		//every square starts in a group of its own
+		groups.reset(model.getSize());
+		
+		for (int index = 0; index < model.getSize(); index++)
+		{
+			final int color = model.getColor(index);
+			
+			//join the west neighbor if the color matches
+			if (index % cols > 0 && model.getColor(index - 1) == color)
+				groups.union(index, index - 1);
+			
+			//join the north neighbor if the color matches
+			if (index >= cols && model.getColor(index - cols) == color)
+				groups.union(index, index - cols);
+		}
+		
+		//assign each group a sequential region index
+		final int total = groups.compact();
+		
+		//store the region of each square
+		for (int index = 0; index < model.getSize(); index++)
+		{
+			model.setRegion(index, groups.getRegion(index));
+		}
+		
+		//return the number of regions
+		return total;
+	}
+	
+	/**
+	 * Count the number of squares of a color.
+	 * @param model The model containing all the squares
+	 * @param color The color index
+	 * @return The number of squares with the color
+	 */
+	public static int getColorCount(final BoardModel model, final int color)
+	{
+		int count = 0;
+		
+		for (int index = 0; index < model.getSize(); index++)
+		{
+			if (model.getColor(index) == color)
+				count++;
+		}
+		
+		return count;
+	}
+	
+	/**
+	 * Count the number of unique colors.
+	 * @param model The model containing all the squares
+	 * @return The total number of different colors found
+	 */
+	public static int getUniqueColorCount(final BoardModel model)
+	{
+		//each bit represents a color we found
+		int colors = 0;
+		
+		for (int index = 0; index < model.getSize(); index++)
+		{
+			colors |= (1 << model.getColor(index));
+		}
+		
+		//return the number of colors we found
+		return Integer.bitCount(colors);
+	}
+}
@@ -0,0 +1,85 @@
+package com.gamesbykevin.flood.engine;
+
+/**
+ * The model containing the state of every square on the board.<br>
+ * Squares are addressed by their index in row-major order (row * cols + col),
+ * so scanning the board from index 0 to {@link #getSize()} visits the squares row by row.
+ */
+public interface BoardModel
+{
+	/**
+	 * Reset the model with the specified dimensions.<br>
+	 * Every square will be cleared (color 0, not flooded, region 0)
+	 * @param cols The number of columns
+	 * @param rows The number of rows
+	 */
+	public void reset(final int cols, final int rows);
+	
+	/**
+	 * Get the columns
+	 * @return The number of columns on the board
+	 */
+	public int getCols();
+	
+	/**
+	 * Get the rows
+	 * @return The number of rows on the board
+	 */
+	public int getRows();
+	
+	/**
+	 * Get the size
+	 * @return The total number of squares on the board
+	 */
+	public int getSize();
+	
+	/**
+	 * Get the index of the specified location
+	 * @param col Column
+	 * @param row Row
+	 * @return The index of the square in row-major order
+	 */
+	public int getIndex(final int col, final int row);
+	
+	/**
+	 * Get the color
+	 * @param index The index of the square
+	 * @return The color index of the square
+	 */
+	public int getColor(final int index);
+	
+	/**
+	 * Assign the color
+	 * @param index The index of the square
+	 * @param color The desired color index
+	 */
+	public void setColor(final int index, final int color);
+	
+	/**
+	 * Is the square flooded?
+	 * @param index The index of the square
+	 * @return true = yes, false = no
+	 */
+	public boolean isFlooded(final int index);
+	
+	/**
+	 * Flag the square flooded
+	 * @param index The index of the square
+	 * @param flooded true = yes, false = no
+	 */
+	public void setFlooded(final int index, final boolean flooded);
+	
+	/**
+	 * Get the region
+	 * @param index The index of the square
+	 * @return The region the square belongs to, squares in the same region have the same color and are connected
+	 */
+	public int getRegion(final int index);
+	
+	/**
+	 * Assign the region
+	 * @param index The index of the square
+	 * @param region The region the square belongs to
+	 */
+	public void setRegion(final int index, final int region);
+}
@@ -0,0 +1,220 @@
+package com.gamesbykevin.flood.engine;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Creates the boards we are likely to play next on a background thread.<br>
+ * The number of boards is bounded, when full the oldest request is dropped.
+ * A board that is ready is handed over as a {@link BoardSnapshot}, so loading it does not generate or solve anything.
+ */
+public final class BoardPregenerator
+{
+	/**
+	 * The default number of boards we keep
+	 */
+	public static final int DEFAULT_CAPACITY = 2;
+
+	//the name of the worker thread
+	private static final String THREAD_NAME = "BoardPregenerator";
+
+	//the worker creating the boards, only a single thread so the factory is never shared
+	private final ExecutorService executor;
+
+	//creates the boards on the worker thread
+	private final BoardFactory factory;
+
+	//the descriptor of each requested board
+	private final LevelDescriptor[] descriptors;
+
+	//the board of each request
+	private final Future<?>[] boards;
+
+	//when each request was made, so we know which is the oldest
+	private final long[] requested;
+
+	//the number of requests made
+	private long count = 0;
+
+	/**
+	 * Create a pregenerator with the default capacity
+	 * @param factory Creates the boards, it will only be used by the worker thread
+	 */
+	public BoardPregenerator(final BoardFactory factory)
+	{
+		this(factory, DEFAULT_CAPACITY);
+	}
+
+	/**
+	 * Create a pregenerator
+	 * @param factory Creates the boards, it will only be used by the worker thread
+	 * @param capacity The maximum number of boards we keep
+	 */
+	public BoardPregenerator(final BoardFactory factory, final int capacity)
+	{
+		this.factory = factory;
+		this.descriptors = new LevelDescriptor[capacity];
+		this.boards = new Future<?>[capacity];
+		this.requested = new long[capacity];
+
+		this.executor = Executors.newSingleThreadExecutor(new ThreadFactory()
+		{
+			@Override
+			public Thread newThread(final Runnable runnable)
+			{
+				final Thread thread = new Thread(runnable, THREAD_NAME);
+
+				//never keep the app alive, and don't compete with the game thread
+				thread.setDaemon(true);
+				thread.setPriority(Thread.MIN_PRIORITY);
+				return thread;
+			}
+		});
+	}
+
+	/**
+	 * Request a board to be created in the background.<br>
+	 * Nothing is done if the board was already requested
+	 * @param descriptor The seed, size and colors of the board
+	 */
+	public synchronized void request(final LevelDescriptor descriptor)
+	{
+		//the board is already requested
+		if (find(descriptor) >= 0)
+			return;
+
+		//use an empty slot, else replace the oldest
+		int slot = 0;
+
+		for (int index = 0; index < boards.length; index++)
+		{
+			if (boards[index] == null)
+			{
+				slot = index;
+				break;
+			}
+
+			if (requested[index] < requested[slot])
+				slot = index;
+		}
+
+		//stop the board we replace
+		remove(slot);
+
+		this.descriptors[slot] = descriptor;
+		this.requested[slot] = count++;
+		this.boards[slot] = executor.submit(new Callable<BoardSnapshot>()
+		{
+			@Override
+			public BoardSnapshot call()
+			{
+				return factory.create(descriptor);
+			}
+		});
+	}
+
+	/**
+	 * Is the board ready?
+	 * @param descriptor The seed, size and colors of the board
+	 * @return true if the board has been created and can be taken, false otherwise
+	 */
+	public synchronized boolean isReady(final LevelDescriptor descriptor)
+	{
+		final int slot = find(descriptor);
+
+		return (slot >= 0 && boards[slot].isDone() && !boards[slot].isCancelled());
+	}
+
+	/**
+	 * Take the board.<br>
+	 * This never waits, if the board is not ready the request is dropped
+	 * @param descriptor The seed, size and colors of the board
+	 * @return The created board, or null if the board is not ready
+	 */
+	public synchronized BoardSnapshot take(final LevelDescriptor descriptor)
+	{
+		final int slot = find(descriptor);
+
+		//the board was never requested
+		if (slot < 0)
+			return null;
+
+		final Future<?> board = boards[slot];
+
+		//the slot is free again
+		remove(slot);
+
+		//the board is not ready yet
+		if (!board.isDone() || board.isCancelled())
+			return null;
+
+		try
+		{
+			return (BoardSnapshot)board.get();
+		}
+		catch (InterruptedException e)
+		{
+			Thread.currentThread().interrupt();
+			return null;
+		}
+		catch (ExecutionException e)
+		{
+			e.printStackTrace();
+			return null;
+		}
+	}
+
+	/**
+	 * Drop every request
+	 */
+	public synchronized void clear()
+	{
+		for (int slot = 0; slot < boards.length; slot++)
+		{
+			remove(slot);
+		}
+	}
+
+	/**
+	 * Drop every request and stop the worker thread
+	 */
+	public synchronized void shutdown()
+	{
+		clear();
+		executor.shutdownNow();
+	}
+
+	/**
+	 * Find the request
+	 * @param descriptor The seed, size and colors of the board
+	 * @return The slot of the request, -1 if not found
+	 */
+	private int find(final LevelDescriptor descriptor)
+	{
+		for (int slot = 0; slot < boards.length; slot++)
+		{
+			if (boards[slot] != null && descriptors[slot].equals(descriptor))
+				return slot;
+		}
+
+		return -1;
+	}
+
+	/**
+	 * Remove the request, the board is stopped if not yet created
+	 * @param slot The slot of the request
+	 */
+	private void remove(final int slot)
+	{
+		if (boards[slot] != null)
+		{
+			boards[slot].cancel(false);
+			boards[slot] = null;
+			descriptors[slot] = null;
+		}
+	}
+}
@@ -0,0 +1,100 @@
+package com.gamesbykevin.flood.engine;
+
+import com.gamesbykevin.flood.solver.Solution;
+
+/**
+ * A board that has been created and solved, ready to be played.<br>
+ * The snapshot is never changed once created, so it can be built on one thread and played on another.
+ * The {@link GameEngine} only copies the squares and keeps a reference to the graph when a snapshot is loaded.
+ */
+public final class BoardSnapshot
+{
+	//the seed, size and colors of the board
+	private final LevelDescriptor descriptor;
+
+	//the packed value of every square, before anything is flooded by the flood engine
+	private final int[] cells;
+
+	//the regions of the board
+	private final RegionGraph graph;
+
+	//the solution found when the board was created
+	private final Solution solution;
+
+	//the maximum number of allowed attempts
+	private final int max;
+
+	protected BoardSnapshot(final LevelDescriptor descriptor, final int[] cells, final RegionGraph graph, final Solution solution, final int max)
+	{
+		this.descriptor = descriptor;
+		this.cells = cells;
+		this.graph = graph;
+		this.solution = solution;
+		this.max = max;
+	}
+
+	/**
+	 * Get the descriptor
+	 * @return The seed, size and colors the board was created from
+	 */
+	public LevelDescriptor getDescriptor()
+	{
+		return this.descriptor;
+	}
+
+	/**
+	 * Get the size
+	 * @return The size of the board (column, row)
+	 */
+	public int getSize()
+	{
+		return getDescriptor().getSize();
+	}
+
+	/**
+	 * Get the colors
+	 * @return The number of colors on the board
+	 */
+	public int getColors()
+	{
+		return getDescriptor().getColors();
+	}
+
+	/**
+	 * Get the max.
+	 * @return The maximum amount of attempts to solve the board
+	 */
+	public int getMax()
+	{
+		return this.max;
+	}
+
+	/**
+	 * Get the solution
+	 * @return The solution found when the board was created
+	 */
+	public Solution getSolution()
+	{
+		return this.solution;
+	}
+
+	/**
+	 * Get the cells.<br>
+	 * This array is shared, it must only be read
+	 * @return The packed value of every square
+	 */
+	protected int[] getCells()
+	{
+		return this.cells;
+	}
+
+	/**
+	 * Get the graph.<br>
+	 * The graph is shared, it must never be built again
+	 * @return The regions of the board
+	 */
+	protected RegionGraph getGraph()
+	{
+		return this.graph;
+	}
+}
@@ -0,0 +1,246 @@
+package com.gamesbykevin.flood.engine;
+
+/**
+ * The flood engine keeps track of the flooded area on the board.<br>
+ * Every region that touches the flooded area, but is not flooded yet, is part of the frontier.
+ * The frontier is bucketed by color so a move only has to absorb the regions in the bucket of the chosen color,
+ * which makes the cost of each move proportional to the area absorbed instead of the size of the board.
+ */
+public final class FloodEngine
+{
+	//the state of each region
+	private static final byte STATE_NONE = 0;
+	private static final byte STATE_FRONTIER = 1;
+	private static final byte STATE_FLOODED = 2;
+
+	//the default capacity of each frontier bucket
+	private static final int DEFAULT_BUCKET_CAPACITY = 16;
+
+	//the model containing the squares on the board
+	private BoardModel model;
+
+	//the regions of the board
+	private RegionGraph graph;
+
+	//the number of squares and regions that have been flooded
+	private int floodedSquares, floodedRegions;
+
+	//the state of each region
+	private byte[] regionState;
+
+	//the regions in the frontier for each color
+	private int[][] frontier;
+
+	//the number of regions in the frontier for each color
+	private int[] frontierSize;
+
+	//every flooded square in the order it was flooded
+	private int[] floodedOrder;
+
+	/**
+	 * Create a new flood engine
+	 * @param colors The total number of colors that can exist on a board
+	 */
+	public FloodEngine(final int colors)
+	{
+		this.frontier = new int[colors][DEFAULT_BUCKET_CAPACITY];
+		this.frontierSize = new int[colors];
+	}
+
+	/**
+	 * Reset the engine for the specified board.<br>
+	 * Nothing will be flooded until we {@link #seed(int, int)} a location.
+	 * @param model The model containing the squares on the board
+	 * @param graph The regions of the board, compiled from the model
+	 */
+	public void reset(final BoardModel model, final RegionGraph graph)
+	{
+		this.model = model;
+		this.graph = graph;
+
+		//nothing has been flooded yet
+		this.floodedSquares = 0;
+		this.floodedRegions = 0;
+
+		//only create a new array if we need more room
+		if (regionState == null || regionState.length < graph.getRegions())
+			regionState = new byte[graph.getRegions()];
+
+		//only create a new array if we need more room
+		if (floodedOrder == null || floodedOrder.length < model.getSize())
+			floodedOrder = new int[model.getSize()];
+
+		//every region starts untouched
+		for (int region = 0; region < graph.getRegions(); region++)
+		{
+			regionState[region] = STATE_NONE;
+		}
+
+		//empty the frontier
+		for (int color = 0; color < frontierSize.length; color++)
+		{
+			frontierSize[color] = 0;
+		}
+	}
+
+	/**
+	 * Flood the region at the specified location.<br>
+	 * This is used to flag where the flood starts.
+	 * @param col Column
+	 * @param row Row
+	 */
+	public void seed(final int col, final int row)
+	{
+		absorb(model.getRegion(model.getIndex(col, row)));
+	}
+
+	/**
+	 * Flood every region in the frontier with the specified color.
+	 * @param color The color index we are flooding with
+	 * @return The number of squares that were absorbed into the flooded area
+	 */
+	public int flood(final int color)
+	{
+		int count = 0;
+
+		//absorb every region in the bucket, new regions may be added as we go
+		while (frontierSize[color] > 0)
+		{
+			//remove the region from the bucket
+			final int region = frontier[color][--frontierSize[color]];
+
+			//flood the region and add the new neighbors
+			count += absorb(region);
+		}
+
+		return count;
+	}
+
+	/**
+	 * Get the number of regions in the frontier.
+	 * @param color The color index
+	 * @return The number of regions that will be absorbed if we flood with the specified color
+	 */
+	public int getFrontierSize(final int color)
+	{
+		return frontierSize[color];
+	}
+
+	/**
+	 * Is the region flooded?
+	 * @param region The region
+	 * @return true = yes, false = no
+	 */
+	public boolean isFlooded(final int region)
+	{
+		return (regionState[region] == STATE_FLOODED);
+	}
+
+	/**
+	 * Get the number of flooded squares.
+	 * @return The number of squares that are part of the flooded area
+	 */
+	public int getFloodedSquares()
+	{
+		return this.floodedSquares;
+	}
+
+	/**
+	 * Get the flooded square.<br>
+	 * Flooded squares are always displayed with the current color, so after every move
+	 * the squares from 0 to {@link #getFloodedSquares()} are the squares that changed color
+	 * @param position The position from 0 to {@link #getFloodedSquares()}, in the order the squares were flooded
+	 * @return The index of the square on the board
+	 */
+	public int getFloodedSquare(final int position)
+	{
+		return floodedOrder[position];
+	}
+
+	/**
+	 * Get the number of remaining regions.
+	 * @return The number of regions that have not been flooded yet
+	 */
+	public int getRemainingRegions()
+	{
+		return (graph.getRegions() - this.floodedRegions);
+	}
+
+	/**
+	 * Do we have a win?
+	 * @return true if every square has been flooded, false otherwise
+	 */
+	public boolean hasWin()
+	{
+		return (this.floodedSquares == model.getSize());
+	}
+
+	/**
+	 * Get the graph.
+	 * @return The regions of the board
+	 */
+	public RegionGraph getGraph()
+	{
+		return this.graph;
+	}
+
+	/**
+	 * Flood the region and add all neighbor regions that are not yet flooded to the frontier
+	 * @param region The region we want to flood
+	 * @return The number of squares in the region
+	 */
+	private int absorb(final int region)
+	{
+		//if already flooded there is nothing to do
+		if (regionState[region] == STATE_FLOODED)
+			return 0;
+
+		//flag the region flooded
+		regionState[region] = STATE_FLOODED;
+
+		//keep track of what has been flooded
+		floodedRegions++;
+
+		//flag every square in the region flooded
+		for (int position = graph.getSquareStart(region); position < graph.getSquareEnd(region); position++)
+		{
+			model.setFlooded(graph.getSquare(position), true);
+			floodedOrder[floodedSquares++] = graph.getSquare(position);
+		}
+
+		//add the neighbors to the frontier
+		for (int position = graph.getEdgeStart(region); position < graph.getEdgeEnd(region); position++)
+		{
+			addFrontier(graph.getEdge(position));
+		}
+
+		return graph.getSize(region);
+	}
+
+	/**
+	 * Add the region to the frontier bucket of its color, if not flooded or already part of the frontier
+	 * @param region The region we want to add
+	 */
+	private void addFrontier(final int region)
+	{
+		//only regions not yet touched are added
+		if (regionState[region] != STATE_NONE)
+			return;
+
+		//flag the region as part of the frontier
+		regionState[region] = STATE_FRONTIER;
+
+		final int color = graph.getColor(region);
+
+		//increase the size of the bucket if full
+		if (frontierSize[color] == frontier[color].length)
+		{
+			final int[] tmp = new int[frontier[color].length * 2];
+			System.arraycopy(frontier[color], 0, tmp, 0, frontier[color].length);
+			frontier[color] = tmp;
+		}
+
+		//add the region to the bucket
+		frontier[color][frontierSize[color]++] = region;
+	}
+}
@@ -0,0 +1,280 @@
+package com.gamesbykevin.flood.engine;
+
+import com.gamesbykevin.flood.solver.Solution;
+import com.gamesbykevin.flood.solver.Solver;
+
+/**
+ * The rules of the game without any android or framework classes.<br>
+ * The engine owns the board, floods the board for every move, counts the attempts and decides a win or loss.
+ * The android classes only display the engine and pass the moves of the player,
+ * so the engine can also run headless (solvers, simulations and benchmarks) on a plain JVM.
+ */
+public final class GameEngine
+{
+	//the model containing every square on the board
+	private final PackedBoardModel model;
+
+	//the regions of the board, shared with the snapshot that was loaded
+	private RegionGraph graph;
+
+	//keeps track of the flooded area
+	private final FloodEngine flood;
+
+	//creates the boards when no snapshot is available
+	private final BoardFactory factory;
+
+	//the board currently played
+	private BoardSnapshot snapshot;
+
+	//the color index of the flooded area
+	private int current;
+
+	//the number of moves made, and the maximum number of moves allowed
+	private int attempts, max;
+
+	//the solution found when the board was created
+	private Solution solution;
+
+	//has a board been created
+	private boolean generated = false;
+
+	/**
+	 * Create a new engine
+	 * @param maxColors The maximum number of colors that can be on a board
+	 */
+	public GameEngine(final int maxColors)
+	{
+		this(maxColors, new BoardFactory(maxColors));
+	}
+
+	/**
+	 * Create a new engine
+	 * @param maxColors The maximum number of colors that can be on a board
+	 * @param factory Creates the boards when no snapshot is available
+	 */
+	public GameEngine(final int maxColors, final BoardFactory factory)
+	{
+		this.model = new PackedBoardModel();
+		this.flood = new FloodEngine(maxColors);
+		this.factory = factory;
+	}
+
+	/**
+	 * Create a new board.<br>
+	 * The board is solved to determine the maximum number of allowed attempts
+	 * @param descriptor The seed, size and colors of the board
+	 */
+	public void reset(final LevelDescriptor descriptor)
+	{
+		//flag generated false
+		this.generated = false;
+
+		//create and play the board
+		load(factory.create(descriptor));
+	}
+
+	/**
+	 * Play a board that has already been created.<br>
+	 * Only the squares are copied, nothing is generated or solved
+	 * @param snapshot The board we want to play
+	 */
+	public void load(final BoardSnapshot snapshot)
+	{
+		//flag generated false
+		this.generated = false;
+
+		//store the board we are playing
+		this.snapshot = snapshot;
+
+		//reset attempts
+		this.attempts = 0;
+
+		//copy the squares, the graph is never changed so it can be shared
+		this.model.load(snapshot.getSize(), snapshot.getSize(), snapshot.getCells());
+		this.graph = snapshot.getGraph();
+
+		//the start location determines the current color
+		this.current = model.getColor(model.getIndex(0, 0));
+
+		//setup the flood engine for the new board
+		flood.reset(model, graph);
+
+		//the flood starts at both flooded corners
+		flood.seed(0, 0);
+		flood.seed(snapshot.getSize() - 1, snapshot.getSize() - 1);
+
+		//the solution and the number of allowed attempts were determined when the board was created
+		this.solution = snapshot.getSolution();
+		this.max = snapshot.getMax();
+
+		//flag generated true
+		this.generated = true;
+	}
+
+	/**
+	 * Is the move valid?<br>
+	 * A move is valid if the game is still in play and the color is in play, but not the current color
+	 * @param color The color index we want to flood with
+	 * @return true = yes, false = no
+	 */
+	public boolean isValidMove(final int color)
+	{
+		//we can't move if there is no board or the game is over
+		if (!isGenerated() || isOver())
+			return false;
+
+		//the color has to be on the board and different from the flooded area
+		return (color >= 0 && color < getColors() && color != getCurrent());
+	}
+
+	/**
+	 * Flood the board with the specified color.<br>
+	 * Every valid move counts as an attempt, even if no squares are absorbed
+	 * @param color The color index we want to flood with
+	 * @return true if the move was valid and made, false otherwise
+	 */
+	public boolean move(final int color)
+	{
+		if (!isValidMove(color))
+			return false;
+
+		//increase our attempt count
+		this.attempts++;
+
+		//set the new flood color
+		this.current = color;
+
+		//flood the squares on the board
+		BoardHelper.floodSquares(flood, color);
+
+		//the move was made
+		return true;
+	}
+
+	/**
+	 * Do we have a win?
+	 * @return true if all squares have been flooded, false otherwise
+	 */
+	public boolean hasWin()
+	{
+		return (isGenerated() && BoardHelper.hasWin(flood));
+	}
+
+	/**
+	 * Did we lose?
+	 * @return true if we used all attempts without flooding every square, false otherwise
+	 */
+	public boolean hasLost()
+	{
+		return (isGenerated() && !hasWin() && getAttempts() >= getMax());
+	}
+
+	/**
+	 * Is the game over?
+	 * @return true if we have a win or a loss, false otherwise
+	 */
+	public boolean isOver()
+	{
+		return (hasWin() || hasLost());
+	}
+
+	/**
+	 * Has the board been created?
+	 * @return true = yes, false = no
+	 */
+	public boolean isGenerated()
+	{
+		return this.generated;
+	}
+
+	/**
+	 * Get the number of attempts
+	 * @return The number of moves made on the current board
+	 */
+	public int getAttempts()
+	{
+		return this.attempts;
+	}
+
+	/**
+	 * Get the max.
+	 * @return The maximum amount of attempts to solve the board
+	 */
+	public int getMax()
+	{
+		return this.max;
+	}
+
+	/**
+	 * Get the remaining attempts
+	 * @return The number of moves we have left
+	 */
+	public int getRemaining()
+	{
+		return (getMax() - getAttempts());
+	}
+
+	/**
+	 * Get the current color
+	 * @return The color index of the flooded area
+	 */
+	public int getCurrent()
+	{
+		return this.current;
+	}
+
+	/**
+	 * Get the colors
+	 * @return The number of colors on the current board
+	 */
+	public int getColors()
+	{
+		return (snapshot != null) ? snapshot.getColors() : 0;
+	}
+
+	/**
+	 * Get the snapshot.<br>
+	 * Loading the snapshot again will restart the current board
+	 * @return The board currently played, or null if no board has been created
+	 */
+	public BoardSnapshot getSnapshot()
+	{
+		return this.snapshot;
+	}
+
+	/**
+	 * Get the solution
+	 * @return The solution found when the board was created
+	 */
+	public Solution getSolution()
+	{
+		return this.solution;
+	}
+
+	/**
+	 * Get the model of the board
+	 * @return The model containing all the squares on our board
+	 */
+	public BoardModel getModel()
+	{
+		return this.model;
+	}
+
+	/**
+	 * Get the graph
+	 * @return The regions of the board
+	 */
+	public RegionGraph getGraph()
+	{
+		return this.graph;
+	}
+
+	/**
+	 * Get the flood engine
+	 * @return The object tracking the flooded area of the board
+	 */
+	public FloodEngine getFlood()
+	{
+		return this.flood;
+	}
+}
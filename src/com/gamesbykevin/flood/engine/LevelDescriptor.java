@@ -0,0 +1,120 @@
+package com.gamesbykevin.flood.engine;
+
+/**
+ * Everything needed to create a board: the seed, the size and the number of colors.<br>
+ * The same descriptor always creates the same board, so a level never has to be stored, only its descriptor.
+ */
+public final class LevelDescriptor
+{
+	/**
+	 * The level of a board that is not part of the level select
+	 */
+	public static final int NO_LEVEL = -1;
+	
+	//the seed every level seed is created from
+	private static final long GAME_SEED = 0x466C6F6F64L;
+	
+	//the seed of the board
+	private final long seed;
+	
+	//the level index, the size of the board and the number of colors
+	private final int level, size, colors;
+	
+	/**
+	 * Create a new descriptor
+	 * @param seed The seed of the board
+	 * @param level The level index, or {@link #NO_LEVEL}
+	 * @param size The size of the board (column, row)
+	 * @param colors The number of colors
+	 */
+	public LevelDescriptor(final long seed, final int level, final int size, final int colors)
+	{
+		this.seed = seed;
+		this.level = level;
+		this.size = size;
+		this.colors = colors;
+	}
+	
+	/**
+	 * Create the descriptor of a level.<br>
+	 * Every level and color setting has its own seed, so the level is the same every time it is played
+	 * @param level The level index
+	 * @param size The size of the board (column, row)
+	 * @param colors The number of colors
+	 * @return The descriptor of the level
+	 */
+	public static LevelDescriptor create(final int level, final int size, final int colors)
+	{
+		//jump directly to the position of the level and color setting in the sequence
+		final long position = GAME_SEED + ((((long)level << 4) | colors) + 1) * SplitMix64.GOLDEN_GAMMA;
+		
+		return new LevelDescriptor(SplitMix64.mix(position), level, size, colors);
+	}
+	
+	/**
+	 * Get the seed
+	 * @return The seed used to create the board
+	 */
+	public long getSeed()
+	{
+		return this.seed;
+	}
+	
+	/**
+	 * Get the level
+	 * @return The level index, or {@link #NO_LEVEL}
+	 */
+	public int getLevel()
+	{
+		return this.level;
+	}
+	
+	/**
+	 * Get the size
+	 * @return The size of the board (column, row)
+	 */
+	public int getSize()
+	{
+		return this.size;
+	}
+	
+	/**
+	 * Get the colors
+	 * @return The number of colors on the board
+	 */
+	public int getColors()
+	{
+		return this.colors;
+	}
+	
+	/**
+	 * Descriptors are equal when they create the same board.<br>
+	 * Descriptors are never stored, so every descriptor is for the board generator of this build
+	 * and the generator does not need to be compared
+	 */
+	@Override
+	public boolean equals(final Object object)
+	{
+		if (this == object)
+			return true;
+		
+		if (!(object instanceof LevelDescriptor))
+			return false;
+		
+		final LevelDescriptor other = (LevelDescriptor)object;
+		
+		return (seed == other.seed && level == other.level && size == other.size && colors == other.colors);
+	}
+	
+	@Override
+	public int hashCode()
+	{
+		return (int)(seed ^ (seed >>> 32)) * 31 + (size * 31 + colors) * 31 + level;
+	}
+	
+	@Override
+	public String toString()
+	{
+		return "LevelDescriptor(level=" + level + ", size=" + size + ", colors=" + colors + ", seed=" + Long.toHexString(seed) + ")";
+	}
+}
@@ -0,0 +1,154 @@
+package com.gamesbykevin.flood.engine;
+
+/**
+ * Default board model where every square is packed into a single int.<br>
+ * Bits 0-2 contain the color, bit 3 is the flooded flag and bits 4-31 contain the region.
+ * The array is only re-created when a larger board is needed, so resetting the board does not allocate.
+ */
+public final class PackedBoardModel implements BoardModel
+{
+	//the bits of the color
+	private static final int COLOR_MASK = 0x7;
+	
+	//the bit of the flooded flag
+	private static final int FLOODED_MASK = 0x8;
+	
+	//where the region starts
+	private static final int REGION_SHIFT = 4;
+	
+	/**
+	 * The maximum number of colors a square can have
+	 */
+	public static final int MAX_COLORS = COLOR_MASK + 1;
+	
+	//every square on the board
+	private int[] cells;
+	
+	//the dimensions of the board
+	private int cols, rows;
+	
+	/**
+	 * Create an empty model
+	 */
+	public PackedBoardModel()
+	{
+		reset(0, 0);
+	}
+	
+	@Override
+	public void reset(final int cols, final int rows)
+	{
+		this.cols = cols;
+		this.rows = rows;
+		
+		//only create a new array if we need more room
+		if (cells == null || cells.length < getSize())
+		{
+			cells = new int[getSize()];
+		}
+		else
+		{
+			//clear the existing squares
+			for (int index = 0; index < getSize(); index++)
+			{
+				cells[index] = 0;
+			}
+		}
+	}
+	
+	@Override
+	public int getCols()
+	{
+		return this.cols;
+	}
+	
+	@Override
+	public int getRows()
+	{
+		return this.rows;
+	}
+	
+	@Override
+	public int getSize()
+	{
+		return (this.cols * this.rows);
+	}
+	
+	@Override
+	public int getIndex(final int col, final int row)
+	{
+		return (row * cols) + col;
+	}
+	
+	@Override
+	public int getColor(final int index)
+	{
+		return (cells[index] & COLOR_MASK);
+	}
+	
+	@Override
+	public void setColor(final int index, final int color)
+	{
+		cells[index] = (cells[index] & ~COLOR_MASK) | (color & COLOR_MASK);
+	}
+	
+	@Override
+	public boolean isFlooded(final int index)
+	{
+		return ((cells[index] & FLOODED_MASK) != 0);
+	}
+	
+	@Override
+	public void setFlooded(final int index, final boolean flooded)
+	{
+		if (flooded)
+		{
+			cells[index] |= FLOODED_MASK;
+		}
+		else
+		{
+			cells[index] &= ~FLOODED_MASK;
+		}
+	}
+	
+	@Override
+	public int getRegion(final int index)
+	{
+		return (cells[index] >>> REGION_SHIFT);
+	}
+	
+	@Override
+	public void setRegion(final int index, final int region)
+	{
+		cells[index] = (cells[index] & (COLOR_MASK | FLOODED_MASK)) | (region << REGION_SHIFT);
+	}
+	
+	/**
+	 * Copy every square.
+	 * @return A new array containing the packed value of every square on the board
+	 */
+	public int[] copy()
+	{
+		final int[] result = new int[getSize()];
+		System.arraycopy(cells, 0, result, 0, getSize());
+		return result;
+	}
+	
+	/**
+	 * Load every square from a copy.
+	 * @param cols The number of columns
+	 * @param rows The number of rows
+	 * @param source The packed value of every square, created by {@link #copy()}
+	 */
+	public void load(final int cols, final int rows, final int[] source)
+	{
+		this.cols = cols;
+		this.rows = rows;
+		
+		//only create a new array if we need more room
+		if (cells == null || cells.length < getSize())
+			cells = new int[getSize()];
+		
+		System.arraycopy(source, 0, cells, 0, getSize());
+	}
+}
@@ -0,0 +1,269 @@
+package com.gamesbykevin.flood.engine;
+
+/**
+ * The board compiled into a graph of regions.<br>
+ * A region is a group of connected squares with the same color, two regions are neighbors if any of their squares touch.
+ * Everything is stored in primitive arrays in compressed sparse row form,
+ * the neighbors of a region are found from {@link #getEdgeStart(int)} to {@link #getEdgeEnd(int)}
+ * and the squares of a region from {@link #getSquareStart(int)} to {@link #getSquareEnd(int)}.
+ * The graph is compiled once when the board is created, and the arrays are re-used for the next board if large enough.
+ */
+public final class RegionGraph
+{
+	//the total number of regions
+	private int regions;
+
+	//the color and number of squares of each region
+	private int[] regionColor, regionSize;
+
+	//where the neighbors of each region start in edges
+	private int[] offsets;
+
+	//the neighbors of every region
+	private int[] edges;
+
+	//where the squares of each region start in squares
+	private int[] squareStart;
+
+	//the index of every square, sorted by region
+	private int[] squares;
+
+	//scratch arrays used while compiling
+	private int[] position, visited;
+
+	/**
+	 * Create an empty graph
+	 */
+	public RegionGraph()
+	{
+		this.regions = 0;
+	}
+
+	/**
+	 * Compile the graph for the board.<br>
+	 * The squares need to be grouped first so every square has the region it belongs to.
+	 * @param model The model containing the squares on the board
+	 * @param regions The total number of regions on the board
+	 */
+	public void build(final BoardModel model, final int regions)
+	{
+		this.regions = regions;
+
+		final int cols = model.getCols();
+		final int size = model.getSize();
+
+		//only create new arrays if we need more room
+		if (regionColor == null || regionColor.length < regions)
+		{
+			regionColor = new int[regions];
+			regionSize = new int[regions];
+			offsets = new int[regions + 1];
+			squareStart = new int[regions + 1];
+			position = new int[regions + 1];
+			visited = new int[regions];
+		}
+
+		if (squares == null || squares.length < size)
+			squares = new int[size];
+
+		//clear the previous counts
+		for (int region = 0; region <= regions; region++)
+		{
+			offsets[region] = 0;
+			squareStart[region] = 0;
+
+			if (region < regions)
+			{
+				regionSize[region] = 0;
+				visited[region] = -1;
+			}
+		}
+
+		//count the squares and the neighbors of each region, a neighbor may be counted more than once here
+		for (int index = 0; index < size; index++)
+		{
+			final int region = model.getRegion(index);
+
+			regionColor[region] = model.getColor(index);
+			regionSize[region]++;
+
+			//east neighbor
+			if (index % cols < cols - 1 && model.getRegion(index + 1) != region)
+			{
+				offsets[region + 1]++;
+				offsets[model.getRegion(index + 1) + 1]++;
+			}
+
+			//south neighbor
+			if (index + cols < size && model.getRegion(index + cols) != region)
+			{
+				offsets[region + 1]++;
+				offsets[model.getRegion(index + cols) + 1]++;
+			}
+		}
+
+		//convert the counts to start positions
+		for (int region = 0; region < regions; region++)
+		{
+			offsets[region + 1] += offsets[region];
+			squareStart[region + 1] = squareStart[region] + regionSize[region];
+		}
+
+		//make sure we have room for every neighbor
+		if (edges == null || edges.length < offsets[regions])
+			edges = new int[offsets[regions]];
+
+		//place every square in the region it belongs to
+		System.arraycopy(squareStart, 0, position, 0, regions);
+
+		for (int index = 0; index < size; index++)
+		{
+			squares[position[model.getRegion(index)]++] = index;
+		}
+
+		//place every neighbor
+		System.arraycopy(offsets, 0, position, 0, regions);
+
+		for (int index = 0; index < size; index++)
+		{
+			final int region = model.getRegion(index);
+
+			if (index % cols < cols - 1 && model.getRegion(index + 1) != region)
+			{
+				edges[position[region]++] = model.getRegion(index + 1);
+				edges[position[model.getRegion(index + 1)]++] = region;
+			}
+
+			if (index + cols < size && model.getRegion(index + cols) != region)
+			{
+				edges[position[region]++] = model.getRegion(index + cols);
+				edges[position[model.getRegion(index + cols)]++] = region;
+			}
+		}
+
+		//remove the duplicate neighbors
+		int count = 0;
+
+		for (int region = 0; region < regions; region++)
+		{
+			//where the neighbors were placed
+			final int start = offsets[region];
+			final int end = position[region];
+
+			//the new start position
+			offsets[region] = count;
+
+			for (int index = start; index < end; index++)
+			{
+				final int neighbor = edges[index];
+
+				//skip the neighbor if already added for this region
+				if (visited[neighbor] == region)
+					continue;
+
+				visited[neighbor] = region;
+				edges[count++] = neighbor;
+			}
+		}
+
+		offsets[regions] = count;
+	}
+
+	/**
+	 * Get the total number of regions.
+	 * @return The number of regions on the board
+	 */
+	public int getRegions()
+	{
+		return this.regions;
+	}
+
+	/**
+	 * Get the color.
+	 * @param region The region
+	 * @return The color index of every square in the region
+	 */
+	public int getColor(final int region)
+	{
+		return regionColor[region];
+	}
+
+	/**
+	 * Get the size.
+	 * @param region The region
+	 * @return The number of squares in the region
+	 */
+	public int getSize(final int region)
+	{
+		return regionSize[region];
+	}
+
+	/**
+	 * Get the start of the neighbors.
+	 * @param region The region
+	 * @return The position of the first neighbor of the region
+	 */
+	public int getEdgeStart(final int region)
+	{
+		return offsets[region];
+	}
+
+	/**
+	 * Get the end of the neighbors.
+	 * @param region The region
+	 * @return The position after the last neighbor of the region
+	 */
+	public int getEdgeEnd(final int region)
+	{
+		return offsets[region + 1];
+	}
+
+	/**
+	 * Get the neighbor.
+	 * @param position The position of the neighbor
+	 * @return The neighboring region
+	 */
+	public int getEdge(final int position)
+	{
+		return edges[position];
+	}
+
+	/**
+	 * Get the total number of neighbors.
+	 * @return The number of edges, each pair of neighbors is counted twice
+	 */
+	public int getEdges()
+	{
+		return offsets[regions];
+	}
+
+	/**
+	 * Get the start of the squares.
+	 * @param region The region
+	 * @return The position of the first square of the region
+	 */
+	public int getSquareStart(final int region)
+	{
+		return squareStart[region];
+	}
+
+	/**
+	 * Get the end of the squares.
+	 * @param region The region
+	 * @return The position after the last square of the region
+	 */
+	public int getSquareEnd(final int region)
+	{
+		return squareStart[region + 1];
+	}
+
+	/**
+	 * Get the square.
+	 * @param position The position of the square
+	 * @return The index of the square on the board
+	 */
+	public int getSquare(final int position)
+	{
+		return squares[position];
+	}
+}
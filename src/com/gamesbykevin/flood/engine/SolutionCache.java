@@ -0,0 +1,68 @@
+package com.gamesbykevin.flood.engine;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import com.gamesbykevin.flood.solver.Solution;
+
+/**
+ * Keeps the solutions of the most recent boards.<br>
+ * A descriptor always creates the same board, so the solution can be re-used instead of solving the board again.
+ * The cache can be shared between threads.
+ */
+public final class SolutionCache
+{
+	/**
+	 * The default number of solutions we keep
+	 */
+	public static final int DEFAULT_CAPACITY = 32;
+	
+	//the solution of each board, the least recently used is removed first
+	private final Map<LevelDescriptor, Solution> solutions;
+	
+	/**
+	 * Create a cache with the default capacity
+	 */
+	public SolutionCache()
+	{
+		this(DEFAULT_CAPACITY);
+	}
+	
+	/**
+	 * Create a cache
+	 * @param capacity The maximum number of solutions we keep
+	 */
+	public SolutionCache(final int capacity)
+	{
+		this.solutions = new LinkedHashMap<LevelDescriptor, Solution>(capacity, 0.75f, true)
+		{
+			private static final long serialVersionUID = 1L;
+			
+			@Override
+			protected boolean removeEldestEntry(final Map.Entry<LevelDescriptor, Solution> eldest)
+			{
+				return (size() > capacity);
+			}
+		};
+	}
+	
+	/**
+	 * Get the solution
+	 * @param descriptor The board
+	 * @return The solution of the board, or null if not in the cache
+	 */
+	public synchronized Solution get(final LevelDescriptor descriptor)
+	{
+		return solutions.get(descriptor);
+	}
+	
+	/**
+	 * Store the solution
+	 * @param descriptor The board
+	 * @param solution The solution of the board
+	 */
+	public synchronized void put(final LevelDescriptor descriptor, final Solution solution)
+	{
+		solutions.put(descriptor, solution);
+	}
+}
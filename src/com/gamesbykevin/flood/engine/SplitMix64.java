@@ -0,0 +1,69 @@
+package com.gamesbykevin.flood.engine;
+
+/**
+ * Fast pseudo random number generator (SplitMix64).<br>
+ * The state is a single long that is advanced by a constant and then mixed, so the value at any position
+ * of the sequence can be computed directly with {@link #mix(long)}, which we use to give every level its own stream.
+ * The same seed will always create the same sequence on every device.
+ * This is not thread safe, every thread needs its own instance.
+ */
+public final class SplitMix64
+{
+	/**
+	 * The amount the state is advanced for each value (the golden ratio as a 64-bit fraction)
+	 */
+	public static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+	
+	//the current state
+	private long seed;
+	
+	/**
+	 * Create a new generator
+	 * @param seed The seed, the same seed always creates the same sequence
+	 */
+	public SplitMix64(final long seed)
+	{
+		reset(seed);
+	}
+	
+	/**
+	 * Start over with a new seed, so the generator can be re-used without creating a new object
+	 * @param seed The seed
+	 */
+	public void reset(final long seed)
+	{
+		this.seed = seed;
+	}
+	
+	/**
+	 * Get the next value
+	 * @return A random long
+	 */
+	public long nextLong()
+	{
+		return mix(seed += GOLDEN_GAMMA);
+	}
+	
+	/**
+	 * Get the next value in a range.<br>
+	 * The high 32 bits are scaled to the range with a multiply instead of a division
+	 * @param bound The upper bound (exclusive), must be positive
+	 * @return A random int from 0 (inclusive) to the bound (exclusive)
+	 */
+	public int nextInt(final int bound)
+	{
+		return (int)(((nextLong() >>> 32) * bound) >>> 32);
+	}
+	
+	/**
+	 * Mix the bits of the value, so every input bit affects every output bit
+	 * @param value The value
+	 * @return The mixed value
+	 */
+	public static long mix(long value)
+	{
+		value = (value ^ (value >>> 30)) * 0xBF58476D1CE4E5B9L;
+		value = (value ^ (value >>> 27)) * 0x94D049BB133111EBL;
+		return value ^ (value >>> 31);
+	}
+}
@@ -0,0 +1,168 @@
+package com.gamesbykevin.flood.engine;
+
+/**
+ * Disjoint set used to group the matching color squares on the board.<br>
+ * Each element is the index of a square (row * cols + col), the parent and size are stored in primitive arrays
+ * and we use path compression and union by size so every operation is practically constant time.
+ */
+public final class UnionFind
+{
+	//the parent of each element, a root is its own parent
+	private int[] parent;
+
+	//the number of elements in the set, only valid for a root
+	private int[] size;
+
+	//the sequential region index of each element, assigned when compacted
+	private int[] region;
+
+	//the number of elements currently in use
+	private int count;
+
+	/**
+	 * Create a new disjoint set
+	 * @param count The number of elements
+	 */
+	public UnionFind(final int count)
+	{
+		reset(count);
+	}
+
+	/**
+	 * Reset so every element is in a set of its own.<br>
+	 * The arrays are only re-created if the existing ones are not large enough
+	 * @param count The number of elements
+	 */
+	public void reset(final int count)
+	{
+		//only create new arrays if we need more room
+		if (this.parent == null || this.parent.length < count)
+		{
+			this.parent = new int[count];
+			this.size = new int[count];
+			this.region = new int[count];
+		}
+
+		//store the number of elements
+		this.count = count;
+
+		//every element starts as its own root
+		for (int index = 0; index < count; index++)
+		{
+			this.parent[index] = index;
+			this.size[index] = 1;
+		}
+	}
+
+	/**
+	 * Get the number of elements
+	 * @return The number of elements currently in use
+	 */
+	public int getCount()
+	{
+		return this.count;
+	}
+
+	/**
+	 * Find the root of the specified element.<br>
+	 * While we walk up the tree we point every other element to its grand parent (path halving)
+	 * @param index The element
+	 * @return The root element of the set the index belongs to
+	 */
+	public int find(int index)
+	{
+		while (parent[index] != index)
+		{
+			//compress the path as we go
+			parent[index] = parent[parent[index]];
+
+			//move up the tree
+			index = parent[index];
+		}
+
+		return index;
+	}
+
+	/**
+	 * Join the sets of the 2 specified elements.<br>
+	 * The smaller set will always be attached to the larger set
+	 * @param index1 The first element
+	 * @param index2 The second element
+	 * @return true if the 2 sets were joined, false if they already belong to the same set
+	 */
+	public boolean union(final int index1, final int index2)
+	{
+		int root1 = find(index1);
+		int root2 = find(index2);
+
+		//already part of the same set
+		if (root1 == root2)
+			return false;
+
+		//make sure root1 is the larger set
+		if (size[root1] < size[root2])
+		{
+			final int tmp = root1;
+			root1 = root2;
+			root2 = tmp;
+		}
+
+		//attach the smaller set to the larger
+		parent[root2] = root1;
+		size[root1] += size[root2];
+
+		//the sets have been joined
+		return true;
+	}
+
+	/**
+	 * Get the size of the set.
+	 * @param index The element
+	 * @return The number of elements in the same set as the specified element
+	 */
+	public int getSize(final int index)
+	{
+		return size[find(index)];
+	}
+
+	/**
+	 * Assign every set a sequential region index starting at 0.
+	 * @return The total number of regions
+	 */
+	public int compact()
+	{
+		//mark every region as not yet assigned
+		for (int index = 0; index < count; index++)
+		{
+			region[index] = -1;
+		}
+
+		//the number of regions found
+		int total = 0;
+
+		for (int index = 0; index < count; index++)
+		{
+			//get the root of this element
+			final int root = find(index);
+
+			//if the root has not been assigned a region yet, assign the next one
+			if (region[root] < 0)
+				region[root] = total++;
+
+			//the element belongs to the same region as its root
+			region[index] = region[root];
+		}
+
+		return total;
+	}
+
+	/**
+	 * Get the region.
+	 * @param index The element
+	 * @return The region index assigned to the element during the last {@link #compact()}
+	 */
+	public int getRegion(final int index)
+	{
+		return region[index];
+	}
+}
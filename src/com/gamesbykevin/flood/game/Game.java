@@ -13,6 +13,7 @@ import com.gamesbykevin.androidframework.resources.Audio;
 import com.gamesbykevin.androidframework.resources.Images;
 import com.gamesbykevin.flood.assets.Assets;
 import com.gamesbykevin.flood.board.Board;
+import com.gamesbykevin.flood.engine.LevelDescriptor;
 import com.gamesbykevin.flood.game.controller.Controller;
 import com.gamesbykevin.flood.number.Number;
 import com.gamesbykevin.flood.panel.GamePanel;
@@ -21,7 +22,6 @@ import com.gamesbykevin.flood.screen.OptionsScreen;
 import com.gamesbykevin.flood.screen.ScreenManager;
 import com.gamesbykevin.flood.screen.ScreenManager.State;
 import com.gamesbykevin.flood.scorecard.ScoreCard;
-import com.gamesbykevin.flood.scorecard.Score;
 
 /**
  * The main game logic will happen here
@@ -76,6 +76,9 @@ public final class Game implements IGame
     //the game score card
     private ScoreCard scoreCard;
     
+    //the completed and locked levels of each color setting
+    private LevelSelectModel levelSelectModel;
+    
     //level select information
     private static final int LEVEL_SELECT_COLS = 4;
     private static final int LEVEL_SELECT_ROWS = 5;
@@ -83,11 +86,18 @@ public final class Game implements IGame
     private static final int LEVEL_SELECT_PADDING = 25;
     private static final int LEVEL_SELECT_START_X = (GamePanel.WIDTH / 2) - (((LEVEL_SELECT_COLS * LEVEL_SELECT_DIMENSION) + ((LEVEL_SELECT_COLS - 1) * LEVEL_SELECT_PADDING)) / 2);
     private static final int LEVEL_SELECT_START_Y = 25;
-    private static final int LEVEL_SELECT_TOTAL = 100;
+    
+    /**
+     * The number of levels in the level select
+     */
+    public static final int LEVEL_SELECT_TOTAL = 100;
     
     //are we starting for the first time?
     private boolean start = true;
     
+    //when the current level started (milliseconds)
+    private long levelStart = 0;
+    
     /**
      * How much we darken the background when we render the hint text
      */
@@ -117,11 +127,11 @@ public final class Game implements IGame
         
         //create the level select screen
         this.levelSelect = new Select();
-        this.levelSelect.setButtonNext(new Button(Images.getImage(Assets.ImageGameKey.PageNext)));
-        this.levelSelect.setButtonOpen(new Button(Images.getImage(Assets.ImageGameKey.LevelOpen)));
-        this.levelSelect.setButtonLocked(new Button(Images.getImage(Assets.ImageGameKey.LevelLocked)));
-        this.levelSelect.setButtonPrevious(new Button(Images.getImage(Assets.ImageGameKey.PagePrevious)));
-        this.levelSelect.setButtonSolved(new Button(Images.getImage(Assets.ImageGameKey.LevelComplete)));
+        this.levelSelect.setButtonNext(new Button(Assets.getImage(Assets.ImageGameKey.PageNext)));
+        this.levelSelect.setButtonOpen(new Button(Assets.getImage(Assets.ImageGameKey.LevelOpen)));
+        this.levelSelect.setButtonLocked(new Button(Assets.getImage(Assets.ImageGameKey.LevelLocked)));
+        this.levelSelect.setButtonPrevious(new Button(Assets.getImage(Assets.ImageGameKey.PagePrevious)));
+        this.levelSelect.setButtonSolved(new Button(Assets.getImage(Assets.ImageGameKey.LevelComplete)));
         this.levelSelect.setCols(LEVEL_SELECT_COLS);
         this.levelSelect.setRows(LEVEL_SELECT_ROWS);
         this.levelSelect.setDimension(LEVEL_SELECT_DIMENSION);
@@ -133,6 +143,10 @@ public final class Game implements IGame
         //create our score card
         this.scoreCard = new ScoreCard(this, screen.getPanel().getActivity());
         
+        //the level select follows the score card
+        this.levelSelectModel = new LevelSelectModel(this.levelSelect, this.scoreCard);
+        this.scoreCard.setListener(this.levelSelectModel);
+        
         //the object to render the remaining attempts
         this.number = new Number();
     }
@@ -205,47 +219,18 @@ public final class Game implements IGame
     }
     
     /**
-     * Update the level select object to flag completed levels and locked levels
+     * Update the level select object to flag completed levels and locked levels.<br>
+     * Wins are applied as they happen, so this only changes the levels that differ when the color setting changed
      */
     private void updateLevelSelect()
     {
-    	//flag start true to start
-    	this.start = true;
+    	final int colors = screen.getScreenOptions().getIndex(OptionsScreen.INDEX_BUTTON_COLORS);
     	
-        //load the saved data
-        for (int levelIndex = getLevelSelect().getTotal() - 1; levelIndex >= 0; levelIndex--)
-        {
-        	//get the score for the specified level and colors
-        	Score score = getScorecard().getScore(levelIndex, screen.getScreenOptions().getIndex(OptionsScreen.INDEX_BUTTON_COLORS));
-        	
-        	//if a score exists
-        	if (score != null)
-        	{
-        		//we have started previous
-        		this.start = false;
-        		
-        		//mark this level as completed
-        		getLevelSelect().setCompleted(levelIndex, true);
-        		
-        		//mark this level as not locked
-        		getLevelSelect().setLocked(levelIndex, false);
-        		
-        		//also make sure the next level is not locked as well
-        		if (levelIndex < getLevelSelect().getTotal() - 1)
-        			getLevelSelect().setLocked(levelIndex + 1, false);
-        	}
-        	else
-        	{
-        		//mark this level as locked
-        		getLevelSelect().setLocked(levelIndex, true);
-        		
-        		//mark this level as not completed
-        		getLevelSelect().setCompleted(levelIndex, false);
-        	}
-        }
-        
-    	//the first level can never be locked
-    	getLevelSelect().setLocked(0, false);
+    	//flag start true if no level was completed
+    	this.start = !levelSelectModel.hasCompleted(colors);
+    	
+    	//show the levels of the color setting
+    	levelSelectModel.show(colors);
     }
     
     /**
@@ -270,6 +255,25 @@ public final class Game implements IGame
     	return this.reset;
     }
     
+    /**
+     * Is the game idle?<br>
+     * The game only changes on input, unless we are creating a board or the board has a win or loss to handle
+     * @return true = yes, false = no
+     */
+    public boolean isIdle()
+    {
+    	//the level select only changes on input
+    	if (!getLevelSelect().hasSelection())
+    		return true;
+    	
+    	//a board is being created
+    	if (hasReset() || !getBoard().isGenerated())
+    		return false;
+    	
+    	//the end of the game is handled on the next update
+    	return (!getBoard().hasWin() && !getBoard().hasLost());
+    }
+    
     /**
      * Get the paint object
      * @return The paint object used to draw text in the game
@@ -359,8 +363,11 @@ public final class Game implements IGame
         //if we are to reset the game
         if (hasReset())
         {
-        	//make sure we have notified first
-        	if (notify)
+        	//the board of the selected level and color setting
+        	final LevelDescriptor level = getLevel(getLevelSelect().getLevelIndex());
+        	
+        	//make sure we have notified first, unless the board is ready and there is nothing to wait for
+        	if (notify || getBoard().isPrepared(level))
         	{
 	        	//flag reset false
 	        	setReset(false);
@@ -369,35 +376,12 @@ public final class Game implements IGame
 	        	if (getController() != null)
 	        		getController().reset();
 	        	
-	        	//the number of different colors
-	        	final int colors;
-	        	
-	        	//determine the number of colors used
-	        	switch (getScreen().getScreenOptions().getIndex(OptionsScreen.INDEX_BUTTON_COLORS))
-	        	{
-		        	case 0:
-		        	default:
-		        		colors = 6;
-		        		break;
-		        		
-		        	case 1:
-		        		colors = 3;
-		        		break;
-		        		
-		        	case 2:
-		        		colors = 4;
-		        		break;
-		        		
-		        	case 3:
-		        		colors = 5;
-		        		break;
-	        	}
-	        	
-	        	//reset with the specified size and colors
-	    		getBoard().reset(
-					getLevelSelect().getLevelIndex() + DEFAULT_DIMENSION, 
-	    			colors
-	    		);
+	        	//reset with the board of the level, a retry plays the same board again
+	    		getBoard().reset(level);
+	    		
+	    		//create the next level in the background
+	    		if (getLevelSelect().getLevelIndex() < getLevelSelect().getTotal() - 1)
+	    			getBoard().prepare(getLevel(getLevelSelect().getLevelIndex() + 1));
 	    		
 	    		//update the number to be displayed here
 				getNumber().setNumber(
@@ -405,6 +389,9 @@ public final class Game implements IGame
 					ATTEMPT_X,
 					ATTEMPT_Y
 				);
+				
+				//the time to complete the level starts now
+				levelStart = System.currentTimeMillis();
         	}
         }
         else
@@ -413,11 +400,17 @@ public final class Game implements IGame
         	if (!getBoard().hasWin())
         	{
         		//if we reached the number of allowed attempts
-        		if (getBoard().getAttempts() >= getBoard().getMax())
+        		if (getBoard().hasLost())
         		{
         			//set losing message
         			getScreen().getScreenGameover().setMessage("You Lose!", GameoverScreen.BUTTON_TEXT_REPLAY);
         			
+        			//count the attempt
+        			getScorecard().addAttempt(
+        				getLevelSelect().getLevelIndex(),
+        				getScreen().getScreenOptions().getIndex(OptionsScreen.INDEX_BUTTON_COLORS)
+        			);
+        			
             		//go to game over state
             		getScreen().setState(State.GameOver);
             		
@@ -455,7 +448,9 @@ public final class Game implements IGame
     			//save the result
     			getScorecard().update(
     				getLevelSelect().getLevelIndex(),
-    				getScreen().getScreenOptions().getIndex(OptionsScreen.INDEX_BUTTON_COLORS)
+    				getScreen().getScreenOptions().getIndex(OptionsScreen.INDEX_BUTTON_COLORS),
+    				getBoard().getAttempts(),
+    				System.currentTimeMillis() - levelStart
     			);
     			
         		//go to game over state
@@ -480,6 +475,40 @@ public final class Game implements IGame
         }
     }
     
+    /**
+     * Get the level
+     * @param levelIndex The level index
+     * @return The seed, size and colors of the level for the current color setting
+     */
+    private LevelDescriptor getLevel(final int levelIndex)
+    {
+    	return LevelDescriptor.create(levelIndex, levelIndex + DEFAULT_DIMENSION, getColors());
+    }
+    
+    /**
+     * Get the colors
+     * @return The number of different colors for the current color setting
+     */
+    private int getColors()
+    {
+    	//determine the number of colors used
+    	switch (getScreen().getScreenOptions().getIndex(OptionsScreen.INDEX_BUTTON_COLORS))
+    	{
+        	case 0:
+        	default:
+        		return 6;
+        		
+        	case 1:
+        		return 3;
+        		
+        	case 2:
+        		return 4;
+        		
+        	case 3:
+        		return 5;
+    	}
+    }
+    
     /**
      * Render game elements
      * @param canvas Where to write the pixel data
@@ -520,7 +549,7 @@ public final class Game implements IGame
 					ScreenManager.darkenBackground(canvas, HINT_TEXT_ALPHA_BACKGROUND);
 					
 					//render the helper text instructions
-					canvas.drawBitmap(Images.getImage(Assets.ImageGameKey.Message), 0, 0, null);
+					canvas.drawBitmap(Assets.getImage(Assets.ImageGameKey.Message), 0, 0, null);
 				}
 		    	
     			//render the switches if possible
@@ -566,10 +595,13 @@ public final class Game implements IGame
         
         if (scoreCard != null)
         {
+        	scoreCard.setListener(null);
         	scoreCard.dispose();
         	scoreCard = null;
         }
         
+        levelSelectModel = null;
+        
         if (number != null)
         {
         	number.dispose();
@@ -0,0 +1,168 @@
+package com.gamesbykevin.flood.game;
+
+import com.gamesbykevin.androidframework.level.Select;
+import com.gamesbykevin.flood.scorecard.ScoreCard;
+
+import java.util.BitSet;
+
+/**
+ * The completed and unlocked levels of each color setting, shown on the level select.<br>
+ * The levels are kept up to date from the score card events, so a win only changes the completed level and the next one.
+ * Showing a color setting only changes the levels of the level select that differ from what is displayed,
+ * so the work does not grow with the number of levels played.
+ * @author GOD
+ */
+public final class LevelSelectModel implements ScoreCard.Listener
+{
+    //the level select we display on
+    private final Select select;
+
+    //the number of levels
+    private final int levels;
+
+    //the completed levels of each color setting
+    private final BitSet[] completed;
+
+    //the unlocked levels of each color setting
+    private final BitSet[] unlocked;
+
+    //the levels displayed as completed and unlocked on the level select
+    private final BitSet displayedCompleted, displayedUnlocked;
+
+    //re-used to find the levels that differ
+    private final BitSet changed;
+
+    //the color setting displayed, -1 when the level select has not been set yet
+    private int displayed = -1;
+
+    /**
+     * Create the model from the scores
+     * @param select The level select we display on
+     * @param scoreCard The scores of every color setting
+     */
+    public LevelSelectModel(final Select select, final ScoreCard scoreCard)
+    {
+        this.select = select;
+        this.levels = select.getTotal();
+        this.completed = new BitSet[ScoreCard.COLOR_SETTINGS];
+        this.unlocked = new BitSet[ScoreCard.COLOR_SETTINGS];
+        this.displayedCompleted = new BitSet(levels);
+        this.displayedUnlocked = new BitSet(levels);
+        this.changed = new BitSet(levels);
+
+        for (int colors = 0; colors < ScoreCard.COLOR_SETTINGS; colors++)
+        {
+            completed[colors] = new BitSet(levels);
+            unlocked[colors] = new BitSet(levels);
+
+            //the first level can never be locked
+            unlocked[colors].set(0);
+
+            for (int level = 0; level < levels; level++)
+            {
+                if (ScoreCard.isValid(level, colors) && scoreCard.hasScore(level, colors))
+                    setCompleted(level, colors);
+            }
+        }
+    }
+
+    /**
+     * Has any level been completed?
+     * @param colors The colors index
+     * @return true if at least one level of the color setting is completed, false otherwise
+     */
+    public boolean hasCompleted(final int colors)
+    {
+        return !completed[colors].isEmpty();
+    }
+
+    /**
+     * Show the levels of the color setting on the level select.<br>
+     * Only the levels that differ from what is displayed are changed
+     * @param colors The colors index
+     */
+    public void show(final int colors)
+    {
+        if (displayed < 0)
+        {
+            //the first time every level is set
+            for (int level = 0; level < levels; level++)
+            {
+                select.setCompleted(level, completed[colors].get(level));
+                select.setLocked(level, !unlocked[colors].get(level));
+            }
+        }
+        else if (displayed != colors)
+        {
+            //only the levels that differ
+            changed.clear();
+            changed.or(displayedCompleted);
+            changed.xor(completed[colors]);
+
+            for (int level = changed.nextSetBit(0); level >= 0; level = changed.nextSetBit(level + 1))
+            {
+                select.setCompleted(level, completed[colors].get(level));
+            }
+
+            changed.clear();
+            changed.or(displayedUnlocked);
+            changed.xor(unlocked[colors]);
+
+            for (int level = changed.nextSetBit(0); level >= 0; level = changed.nextSetBit(level + 1))
+            {
+                select.setLocked(level, !unlocked[colors].get(level));
+            }
+        }
+        else
+        {
+            //already displayed, the events keep it up to date
+            return;
+        }
+
+        //remember what is displayed
+        displayedCompleted.clear();
+        displayedCompleted.or(completed[colors]);
+        displayedUnlocked.clear();
+        displayedUnlocked.or(unlocked[colors]);
+        displayed = colors;
+    }
+
+    @Override
+    public void onCompleted(final int level, final int colors)
+    {
+        if (level >= levels)
+            return;
+
+        setCompleted(level, colors);
+
+        //update the level select if the color setting is displayed
+        if (colors == displayed)
+        {
+            select.setCompleted(level, true);
+            select.setLocked(level, false);
+            displayedCompleted.set(level);
+            displayedUnlocked.set(level);
+
+            //also make sure the next level is not locked as well
+            if (level < levels - 1)
+            {
+                select.setLocked(level + 1, false);
+                displayedUnlocked.set(level + 1);
+            }
+        }
+    }
+
+    /**
+     * Mark the level completed, the level and the next level are unlocked
+     * @param level The level index
+     * @param colors The colors index
+     */
+    private void setCompleted(final int level, final int colors)
+    {
+        completed[colors].set(level);
+        unlocked[colors].set(level);
+
+        if (level < levels - 1)
+            unlocked[colors].set(level + 1);
+    }
+}
@@ -6,7 +6,6 @@ import android.graphics.Canvas;
 import android.view.MotionEvent;
 
 import com.gamesbykevin.androidframework.resources.Audio;
-import com.gamesbykevin.androidframework.resources.Images;
 import com.gamesbykevin.flood.assets.Assets;
 import com.gamesbykevin.flood.game.Game;
 import com.gamesbykevin.flood.screen.OptionsScreen;
@@ -26,6 +25,9 @@ public class Controller implements IController
     //all of the buttons for the player to control
     private HashMap<Assets.ImageGameKey, Button> buttons;
     
+    //the same buttons in the order rendered, so rendering does not iterate or look up the hash map
+    private Button[] rendered;
+    
     //our game object reference
     private final Game game;
     
@@ -70,7 +72,7 @@ public class Controller implements IController
         //add button
         for (Assets.ImageGameKey key : tmp)
         {
-            this.buttons.put(key, new Button(Images.getImage(key)));
+            this.buttons.put(key, new Button(Assets.getImage(key)));
         }
         
         //update location of our buttons
@@ -92,6 +94,14 @@ public class Controller implements IController
             //update the boundary of all buttons
             this.buttons.get(key).updateBounds();
         }
+        
+        //store the buttons in the order rendered
+        this.rendered = new Button[tmp.size()];
+        
+        for (int index = 0; index < tmp.size(); index++)
+        {
+        	this.rendered[index] = this.buttons.get(tmp.get(index));
+        }
     }
     
     /**
@@ -181,6 +191,8 @@ public class Controller implements IController
             buttons.clear();
             buttons = null;
         }
+        
+        rendered = null;
     }
     
     /**
@@ -192,17 +204,16 @@ public class Controller implements IController
     public void render(final Canvas canvas) throws Exception
     {
         //draw the buttons
-        if (buttons != null)
+        if (rendered != null)
         {
-        	//check each key in the hash map
-        	for (Assets.ImageGameKey key : buttons.keySet())
+        	for (int index = 0; index < rendered.length; index++)
         	{
         		//don't continue if button does not exist
-        		if (buttons.get(key) == null)
+        		if (rendered[index] == null)
         			continue;
         		
         		//render the button
-				buttons.get(key).render(canvas);
+        		rendered[index].render(canvas);
         	}
         }
     }
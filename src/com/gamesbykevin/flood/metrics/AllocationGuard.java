@@ -0,0 +1,81 @@
+package com.gamesbykevin.flood.metrics;
+
+import android.os.Debug;
+
+/**
+ * Counts the objects created by the calling thread while drawing a frame.<br>
+ * After the warm up every frame is expected to create nothing, any frame that does is a failure.
+ * This checks the real render path on a device, the benchmarks only check the code that builds without android.
+ * Allocation counting slows the runtime down, so this is only to be used while the diagnostics are enabled.
+ */
+public final class AllocationGuard
+{
+	/**
+	 * The number of frames we ignore, while caches and lazy objects are created
+	 */
+	public static final int WARMUP_FRAMES = 120;
+
+	//the number of frames checked
+	private int frames = 0;
+
+	//the number of frames that created objects after the warm up
+	private int failures = 0;
+
+	//has the counting started
+	private boolean started = false;
+
+	/**
+	 * Start counting the objects created for a frame
+	 */
+	public void begin()
+	{
+		if (!started)
+		{
+			Debug.startAllocCounting();
+			started = true;
+			
+			//caches may have been released while we were not counting, warm up again
+			frames = 0;
+		}
+
+		Debug.resetThreadAllocCount();
+	}
+
+	/**
+	 * Stop counting the objects created for a frame
+	 * @throws IllegalStateException if the frame created objects after the warm up
+	 */
+	public void end()
+	{
+		final int count = Debug.getThreadAllocCount();
+
+		frames++;
+
+		if (frames > WARMUP_FRAMES && count > 0)
+		{
+			failures++;
+			throw new IllegalStateException("Frame " + frames + " created " + count + " object(s), " + failures + " frame(s) failed so far");
+		}
+	}
+
+	/**
+	 * Stop allocation counting
+	 */
+	public void stop()
+	{
+		if (started)
+		{
+			Debug.stopAllocCounting();
+			started = false;
+		}
+	}
+
+	/**
+	 * Get the failures
+	 * @return The number of frames that created objects after the warm up
+	 */
+	public int getFailures()
+	{
+		return this.failures;
+	}
+}
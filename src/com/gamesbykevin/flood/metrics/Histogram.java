@@ -0,0 +1,225 @@
+package com.gamesbykevin.flood.metrics;
+
+/**
+ * A fixed size histogram of durations (nanoseconds).<br>
+ * Like an HDR histogram the buckets are linear within each power of 2, so every value is kept
+ * with a precision of 1 / {@link #SUB_BUCKETS}, no matter how large.
+ * All the buckets are created up front, recording a value never allocates.
+ */
+public final class Histogram
+{
+	/**
+	 * The number of buckets within each power of 2
+	 */
+	public static final int SUB_BUCKETS = 16;
+
+	//the number of bits used by the sub buckets
+	private static final int SUB_BITS = 4;
+
+	/**
+	 * The largest power of 2 we keep, larger values are counted in the last bucket (about 18 minutes)
+	 */
+	public static final int MAX_EXPONENT = 40;
+
+	//the name displayed with the values
+	private final String name;
+
+	//the count of each bucket
+	private final long[] counts = new long[(MAX_EXPONENT - SUB_BITS + 2) * SUB_BUCKETS];
+
+	//the number of values recorded
+	private long count;
+
+	//the sum of the values recorded
+	private long total;
+
+	//the smallest and largest value recorded
+	private long min, max;
+
+	/**
+	 * Create an empty histogram
+	 * @param name The name displayed with the values
+	 */
+	public Histogram(final String name)
+	{
+		this.name = name;
+		reset();
+	}
+
+	/**
+	 * Get the name
+	 * @return The name displayed with the values
+	 */
+	public String getName()
+	{
+		return this.name;
+	}
+
+	/**
+	 * Record a value
+	 * @param value The duration (nanoseconds), negative values are counted as 0
+	 */
+	public synchronized void record(final long value)
+	{
+		final long tmp = (value < 0) ? 0 : value;
+
+		counts[getIndex(tmp)]++;
+		count++;
+		total += tmp;
+
+		if (tmp < min)
+			min = tmp;
+		if (tmp > max)
+			max = tmp;
+	}
+
+	/**
+	 * Remove every value
+	 */
+	public synchronized void reset()
+	{
+		for (int index = 0; index < counts.length; index++)
+		{
+			counts[index] = 0;
+		}
+
+		count = 0;
+		total = 0;
+		min = Long.MAX_VALUE;
+		max = 0;
+	}
+
+	/**
+	 * Get the count
+	 * @return The number of values recorded
+	 */
+	public synchronized long getCount()
+	{
+		return this.count;
+	}
+
+	/**
+	 * Get the min
+	 * @return The smallest value recorded, 0 if empty
+	 */
+	public synchronized long getMin()
+	{
+		return (count == 0) ? 0 : this.min;
+	}
+
+	/**
+	 * Get the max
+	 * @return The largest value recorded, 0 if empty
+	 */
+	public synchronized long getMax()
+	{
+		return this.max;
+	}
+
+	/**
+	 * Get the mean
+	 * @return The average of the values recorded, 0 if empty
+	 */
+	public synchronized long getMean()
+	{
+		return (count == 0) ? 0 : total / count;
+	}
+
+	/**
+	 * Get the value at the percentile
+	 * @param percentile The percentile (0 - 100)
+	 * @return The highest value of the bucket containing the percentile, never more than the max. 0 if empty
+	 */
+	public synchronized long getPercentile(final double percentile)
+	{
+		if (count == 0)
+			return 0;
+
+		//the number of values at or below the percentile
+		final long target = Math.max(1, (long)Math.ceil(count * (percentile / 100.0)));
+
+		long sum = 0;
+
+		for (int index = 0; index < counts.length; index++)
+		{
+			sum += counts[index];
+
+			if (sum >= target)
+				return Math.min(max, getHighest(index));
+		}
+
+		return max;
+	}
+
+	/**
+	 * Get the index
+	 * @param value The value
+	 * @return The bucket counting the value
+	 */
+	private static int getIndex(final long value)
+	{
+		//small values each have their own bucket
+		if (value < SUB_BUCKETS)
+			return (int)value;
+
+		//the position of the highest bit
+		final int exponent = Math.min(MAX_EXPONENT, 63 - Long.numberOfLeadingZeros(value));
+
+		//values past the range are counted in the last bucket
+		if (exponent == MAX_EXPONENT && (value >>> MAX_EXPONENT) > 1)
+			return (MAX_EXPONENT - SUB_BITS + 2) * SUB_BUCKETS - 1;
+
+		//the bits below the highest bit choose the sub bucket
+		final int sub = (int)(value >>> (exponent - SUB_BITS)) - SUB_BUCKETS;
+
+		return (exponent - SUB_BITS + 1) * SUB_BUCKETS + sub;
+	}
+
+	/**
+	 * Get the highest
+	 * @param index The index of the bucket
+	 * @return The highest value counted in the bucket
+	 */
+	private static long getHighest(final int index)
+	{
+		if (index < SUB_BUCKETS)
+			return index;
+
+		final int exponent = (index / SUB_BUCKETS) + SUB_BITS - 1;
+		final int sub = index % SUB_BUCKETS;
+
+		return ((long)(SUB_BUCKETS + sub + 1) << (exponent - SUB_BITS)) - 1;
+	}
+
+	/**
+	 * Write the values to the text
+	 * @param text Where we write the values, in milliseconds
+	 */
+	public synchronized void write(final StringBuilder text)
+	{
+		text.append(name);
+		text.append(" n=").append(count);
+		append(text.append(" mean="), getMean());
+		append(text.append(" p50="), getPercentile(50));
+		append(text.append(" p90="), getPercentile(90));
+		append(text.append(" p99="), getPercentile(99));
+		append(text.append(" max="), getMax());
+	}
+
+	/**
+	 * Append the duration in milliseconds with 2 decimals, without creating a string
+	 * @param text Where we write the duration
+	 * @param nanos The duration (nanoseconds)
+	 */
+	private static void append(final StringBuilder text, final long nanos)
+	{
+		final long hundredths = nanos / 10000L;
+
+		text.append(hundredths / 100).append('.');
+
+		if (hundredths % 100 < 10)
+			text.append('0');
+
+		text.append(hundredths % 100);
+	}
+}
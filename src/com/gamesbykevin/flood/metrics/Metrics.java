@@ -0,0 +1,222 @@
+package com.gamesbykevin.flood.metrics;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.lang.ref.WeakReference;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The timings recorded while the game is running.<br>
+ * Each histogram is created once, so recording never allocates and is always enabled.
+ * The overlay only decides if the timings are displayed.
+ * The overlay and the export can only be reached when the diagnostics are enabled, a hidden developer setting.
+ */
+public final class Metrics
+{
+	/**
+	 * The time to update the game, for each update
+	 */
+	public static final Histogram UPDATE = new Histogram("update");
+
+	/**
+	 * The time to draw a frame, for each frame
+	 */
+	public static final Histogram RENDER = new Histogram("render");
+
+	/**
+	 * The time to present a frame on the surface, for each frame
+	 */
+	public static final Histogram PRESENT = new Histogram("present");
+
+	/**
+	 * The time the game thread slept longer than requested
+	 */
+	public static final Histogram OVERSHOOT = new Histogram("overshoot");
+
+	/**
+	 * The time of each loop of the game thread a garbage collection happened in
+	 */
+	public static final Histogram GC = new Histogram("gc");
+
+	/**
+	 * The time to flood the board, for each move
+	 */
+	public static final Histogram MOVE = new Histogram("move");
+
+	/**
+	 * The time to generate or load a board
+	 */
+	public static final Histogram GENERATE = new Histogram("generate");
+
+	/**
+	 * The time to write a file of the storage, for each write
+	 */
+	public static final Histogram STORAGE_WRITE = new Histogram("storage write");
+
+	/**
+	 * The time to flush every waiting write of the storage, for each flush
+	 */
+	public static final Histogram STORAGE_FLUSH = new Histogram("storage flush");
+
+	/**
+	 * The number of writes queued on the storage
+	 */
+	public static final AtomicLong STORAGE_QUEUED = new AtomicLong();
+
+	/**
+	 * The number of saves merged with a write already queued
+	 */
+	public static final AtomicLong STORAGE_COALESCED = new AtomicLong();
+
+	/**
+	 * The number of bytes written to the storage
+	 */
+	public static final AtomicLong STORAGE_BYTES = new AtomicLong();
+
+	//every histogram, in the order displayed
+	private static final Histogram[] HISTOGRAMS = {UPDATE, RENDER, PRESENT, OVERSHOOT, GC, MOVE, GENERATE, STORAGE_WRITE, STORAGE_FLUSH};
+
+	//cleared by the garbage collector, so we know a collection happened
+	private static WeakReference<Object> sentinel = new WeakReference<Object>(new Object());
+
+	/**
+	 * The name of the file the timings are exported to
+	 */
+	public static final String EXPORT_NAME = "metrics.txt";
+
+	//do we display the overlay
+	private static volatile boolean overlay = false;
+
+	//are the diagnostics enabled
+	private static volatile boolean diagnostics = false;
+
+	private Metrics()
+	{
+		//no instances, everything is static
+	}
+
+	/**
+	 * Check if a garbage collection happened since the previous check.<br>
+	 * A new sentinel is only created after a collection, so this does not allocate every loop
+	 * @param elapsed The time of the loop (nanoseconds), recorded if there was a collection
+	 * @return true if there was a collection, false otherwise
+	 */
+	public static boolean checkGarbageCollection(final long elapsed)
+	{
+		if (sentinel.get() != null)
+			return false;
+
+		GC.record(elapsed);
+		sentinel = new WeakReference<Object>(new Object());
+		return true;
+	}
+
+	/**
+	 * Get the histograms
+	 * @return Every histogram, in the order displayed
+	 */
+	public static Histogram[] getHistograms()
+	{
+		return HISTOGRAMS;
+	}
+
+	/**
+	 * Remove every value recorded
+	 */
+	public static void reset()
+	{
+		for (int index = 0; index < HISTOGRAMS.length; index++)
+		{
+			HISTOGRAMS[index].reset();
+		}
+
+		STORAGE_QUEUED.set(0);
+		STORAGE_COALESCED.set(0);
+		STORAGE_BYTES.set(0);
+	}
+
+	/**
+	 * Enable the diagnostics, the overlay is hidden when disabled
+	 * @param enabled true to enable the diagnostics, false otherwise
+	 */
+	public static void setDiagnostics(final boolean enabled)
+	{
+		diagnostics = enabled;
+
+		if (!enabled)
+			overlay = false;
+	}
+
+	/**
+	 * Are the diagnostics enabled?
+	 * @return true = yes, false = no
+	 */
+	public static boolean hasDiagnostics()
+	{
+		return diagnostics;
+	}
+
+	/**
+	 * Toggle the overlay
+	 * @return true if the overlay is now displayed, false otherwise
+	 */
+	public static boolean toggleOverlay()
+	{
+		overlay = !overlay;
+		return overlay;
+	}
+
+	/**
+	 * Do we display the overlay?
+	 * @return true = yes, false = no
+	 */
+	public static boolean hasOverlay()
+	{
+		return overlay;
+	}
+
+	/**
+	 * Create a text dump of every histogram, one per line.<br>
+	 * The durations are in milliseconds
+	 * @return The text dump
+	 */
+	public static String dump()
+	{
+		final StringBuilder text = new StringBuilder();
+
+		for (int index = 0; index < HISTOGRAMS.length; index++)
+		{
+			HISTOGRAMS[index].write(text);
+			text.append('\n');
+		}
+
+		text.append("storage queued=").append(STORAGE_QUEUED.get());
+		text.append(" coalesced=").append(STORAGE_COALESCED.get());
+		text.append(" bytes=").append(STORAGE_BYTES.get());
+		text.append('\n');
+
+		return text.toString();
+	}
+
+	/**
+	 * Write the text dump to a file, replacing the previous export
+	 * @param file The file
+	 * @throws IOException if the file can't be written
+	 */
+	public static void export(final File file) throws IOException
+	{
+		final Writer writer = new OutputStreamWriter(new FileOutputStream(file), "UTF-8");
+
+		try
+		{
+			writer.write(dump());
+		}
+		finally
+		{
+			writer.close();
+		}
+	}
+}
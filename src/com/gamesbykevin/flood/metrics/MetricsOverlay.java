@@ -0,0 +1,74 @@
+package com.gamesbykevin.flood.metrics;
+
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Paint;
+
+/**
+ * Draws the histograms on top of the game.<br>
+ * The text is written in a re-used buffer, so drawing the overlay does not create strings
+ */
+public final class MetricsOverlay
+{
+	//the size of the text
+	private static final float TEXT_SIZE = 14f;
+
+	//the space between the lines
+	private static final int LINE_HEIGHT = 18;
+
+	//where we start drawing
+	private static final int START_X = 4, START_Y = 16;
+
+	//the alpha of the background behind the text
+	private static final int BACKGROUND_ALPHA = 160;
+
+	//paint for the text
+	private final Paint paint;
+
+	//paint for the background
+	private final Paint background;
+
+	//the text of a line
+	private final StringBuilder text = new StringBuilder(128);
+
+	//the characters of a line, used to draw without creating a string
+	private char[] chars = new char[128];
+
+	public MetricsOverlay()
+	{
+		this.paint = new Paint();
+		this.paint.setColor(Color.WHITE);
+		this.paint.setTextSize(TEXT_SIZE);
+
+		this.background = new Paint();
+		this.background.setColor(Color.BLACK);
+		this.background.setAlpha(BACKGROUND_ALPHA);
+	}
+
+	/**
+	 * Draw the overlay
+	 * @param canvas The canvas we draw on
+	 * @param width The width of the overlay
+	 */
+	public void render(final Canvas canvas, final int width)
+	{
+		final Histogram[] histograms = Metrics.getHistograms();
+
+		//darken the area behind the text
+		canvas.drawRect(0, 0, width, START_Y + (histograms.length * LINE_HEIGHT), background);
+
+		for (int index = 0; index < histograms.length; index++)
+		{
+			text.setLength(0);
+			histograms[index].write(text);
+
+			//make sure the buffer fits the line
+			if (chars.length < text.length())
+				chars = new char[text.length()];
+
+			text.getChars(0, text.length(), chars, 0);
+
+			canvas.drawText(chars, 0, text.length(), START_X, START_Y + (index * LINE_HEIGHT), paint);
+		}
+	}
+}
@@ -0,0 +1,118 @@
+package com.gamesbykevin.flood.metrics;
+
+import android.util.Log;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Traces the time it takes to start the game.<br>
+ * The trace starts when the main activity is created, each game image and font records how long it took to decode
+ * (the framework loads the menu assets and the audio a directory at a time, so those are recorded per directory)
+ * and the trace ends at the first frame of the menu, where it is written to the log.
+ * Events recorded before the trace starts (like the splash screen) have a negative offset.
+ */
+public final class StartupTrace
+{
+	//the tag of our log messages
+	private static final String LOG_TAG = "Flood";
+
+	/**
+	 * A single event of the trace
+	 */
+	private static final class Event
+	{
+		//the name of the event
+		private final String name;
+
+		//the thread the event happened on
+		private final String thread;
+
+		//when the event started and how long it took (nanoseconds)
+		private final long start, duration;
+
+		private Event(final String name, final long start, final long duration)
+		{
+			this.name = name;
+			this.thread = Thread.currentThread().getName();
+			this.start = start;
+			this.duration = duration;
+		}
+	}
+
+	//the events of the trace
+	private static final List<Event> EVENTS = new ArrayList<Event>();
+
+	//when the trace started (nanoseconds)
+	private static long origin = 0;
+
+	//has the trace ended, read every menu frame so we don't lock once done
+	private static volatile boolean ended = false;
+
+	private StartupTrace()
+	{
+		//no instances, everything is static
+	}
+
+	/**
+	 * Start the trace, the offset of every event is relative to this moment
+	 */
+	public static synchronized void begin()
+	{
+		origin = System.nanoTime();
+		ended = false;
+	}
+
+	/**
+	 * Record an event that is complete
+	 * @param name The name of the event
+	 * @param start When the event started, from {@link System#nanoTime()}
+	 */
+	public static synchronized void record(final String name, final long start)
+	{
+		EVENTS.add(new Event(name, start, System.nanoTime() - start));
+	}
+
+	/**
+	 * End the trace and write it to the log.<br>
+	 * Only the first call after {@link #begin()} has any effect
+	 * @param name The name of the final event
+	 */
+	public static void end(final String name)
+	{
+		if (ended)
+			return;
+
+		synchronized (StartupTrace.class)
+		{
+			if (ended)
+				return;
+
+			ended = true;
+
+			EVENTS.add(new Event(name, System.nanoTime(), 0));
+			Log.i(LOG_TAG, dump());
+		}
+	}
+
+	/**
+	 * Create a text dump of the trace, one event per line.<br>
+	 * Each line has the offset from the start of the trace and the duration, in milliseconds
+	 * @return The text dump
+	 */
+	public static synchronized String dump()
+	{
+		final StringBuilder text = new StringBuilder("startup trace\n");
+
+		for (Event event : EVENTS)
+		{
+			text.append(event.name);
+			text.append(" at=").append((event.start - origin) / 1000000L).append("ms");
+			text.append(" took=").append(event.duration / 1000000L).append("ms");
+			text.append(" thread=").append(event.thread);
+			text.append('\n');
+		}
+
+		return text.toString();
+	}
+}
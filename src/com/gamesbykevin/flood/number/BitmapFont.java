@@ -0,0 +1,182 @@
+package com.gamesbykevin.flood.number;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Color;
+
+import com.gamesbykevin.flood.assets.SpriteAtlas;
+import com.gamesbykevin.flood.render.CanvasTarget;
+import com.gamesbykevin.flood.render.DigitPainter;
+
+/**
+ * Draws numbers with the digit glyphs of a sprite atlas.<br>
+ * The glyphs of a number are composited once by the {@link DigitPainter} on a small layer that is cached,
+ * so a number drawn again costs a single bitmap draw.
+ */
+public final class BitmapFont
+{
+	/**
+	 * The default number of composited numbers we keep
+	 */
+	public static final int DEFAULT_CACHE_SIZE = 8;
+
+	//the atlas of the glyphs 0 - 9, the target draws them from the numbers atlas of the assets
+	private final SpriteAtlas atlas;
+
+	//the size each glyph is drawn
+	private final int glyphWidth, glyphHeight;
+
+	//the value of each cached number
+	private final int[] values;
+
+	//the composited glyphs of each cached number
+	private final Bitmap[] layers;
+
+	//when each cached number was last drawn, so we know which one to replace
+	private final long[] used;
+
+	//counts every draw
+	private long clock = 0;
+
+	//the digits of the number being drawn
+	private final int[] digits = new int[DigitPainter.MAX_DIGITS];
+
+	//re-used to draw on each layer
+	private final Canvas layerCanvas = new Canvas();
+
+	//where the glyphs are drawn, targets the layer
+	private final CanvasTarget target = new CanvasTarget();
+
+	/**
+	 * Create a font with the default cache size
+	 * @param atlas The numbers atlas of the assets, containing the glyphs 0 - 9 in that order
+	 * @param glyphWidth The width each glyph is drawn
+	 * @param glyphHeight The height each glyph is drawn
+	 */
+	public BitmapFont(final SpriteAtlas atlas, final int glyphWidth, final int glyphHeight)
+	{
+		this(atlas, glyphWidth, glyphHeight, DEFAULT_CACHE_SIZE);
+	}
+
+	/**
+	 * Create a font
+	 * @param atlas The numbers atlas of the assets, containing the glyphs 0 - 9 in that order
+	 * @param glyphWidth The width each glyph is drawn
+	 * @param glyphHeight The height each glyph is drawn
+	 * @param cacheSize The number of composited numbers we keep
+	 */
+	public BitmapFont(final SpriteAtlas atlas, final int glyphWidth, final int glyphHeight, final int cacheSize)
+	{
+		this.atlas = atlas;
+		this.glyphWidth = glyphWidth;
+		this.glyphHeight = glyphHeight;
+		this.values = new int[cacheSize];
+		this.layers = new Bitmap[cacheSize];
+		this.used = new long[cacheSize];
+	}
+
+	/**
+	 * Get the atlas
+	 * @return The atlas containing the glyphs
+	 */
+	public SpriteAtlas getAtlas()
+	{
+		return this.atlas;
+	}
+
+	/**
+	 * Get the width
+	 * @param value The number
+	 * @return The width of the number when drawn
+	 */
+	public int getWidth(final int value)
+	{
+		return DigitPainter.getDigits(value, digits) * glyphWidth;
+	}
+
+	/**
+	 * Get the height
+	 * @return The height of the glyphs when drawn
+	 */
+	public int getHeight()
+	{
+		return this.glyphHeight;
+	}
+
+	/**
+	 * Draw the number
+	 * @param canvas The canvas we draw on
+	 * @param value The number
+	 * @param x x-coordinate
+	 * @param y y-coordinate
+	 */
+	public void draw(final Canvas canvas, final int value, final int x, final int y)
+	{
+		canvas.drawBitmap(getLayer(value), x, y, null);
+	}
+
+	/**
+	 * Get the layer of the number, the number is composited if not cached
+	 * @param value The number
+	 * @return The layer containing the glyphs of the number
+	 */
+	private Bitmap getLayer(final int value)
+	{
+		clock++;
+
+		//the cached number we replace if not found, an empty slot first else the least recently drawn
+		int slot = 0;
+
+		for (int index = 0; index < layers.length; index++)
+		{
+			if (layers[index] != null && values[index] == value)
+			{
+				used[index] = clock;
+				return layers[index];
+			}
+
+			if (layers[slot] != null && (layers[index] == null || used[index] < used[slot]))
+				slot = index;
+		}
+
+		final int count = DigitPainter.getDigits(value, digits);
+
+		//the layer is only created again when the number of digits differs
+		if (layers[slot] == null || layers[slot].getWidth() != count * glyphWidth)
+		{
+			if (layers[slot] != null)
+				layers[slot].recycle();
+
+			layers[slot] = Bitmap.createBitmap(count * glyphWidth, glyphHeight, Bitmap.Config.ARGB_8888);
+		}
+		else
+		{
+			layers[slot].eraseColor(Color.TRANSPARENT);
+		}
+
+		//draw each glyph on the layer
+		layerCanvas.setBitmap(layers[slot]);
+		target.setCanvas(layerCanvas, layers[slot].getWidth(), glyphHeight);
+		DigitPainter.paint(target, digits, count, 0, 0, glyphWidth, glyphHeight);
+
+		values[slot] = value;
+		used[slot] = clock;
+
+		return layers[slot];
+	}
+
+	/**
+	 * Recycle the cached numbers
+	 */
+	public void recycle()
+	{
+		for (int index = 0; index < layers.length; index++)
+		{
+			if (layers[index] != null)
+			{
+				layers[index].recycle();
+				layers[index] = null;
+			}
+		}
+	}
+}
@@ -0,0 +1,159 @@
+package com.gamesbykevin.flood.number;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Paint;
+import android.graphics.Rect;
+
+/**
+ * Draws lines of text that are repeated every frame, like the game over message.<br>
+ * Each line is drawn with its paint once on a layer that is cached, so the text is not laid out again
+ * until it changes and each frame costs a single bitmap draw.
+ * Text that is only digits should use a {@link BitmapFont} instead.
+ */
+public final class TextCache
+{
+	/**
+	 * The default number of lines we keep
+	 */
+	public static final int DEFAULT_CACHE_SIZE = 4;
+
+	//the text and paint of each cached line
+	private final String[] texts;
+	private final Paint[] paints;
+
+	//the drawn text of each cached line
+	private final Bitmap[] layers;
+
+	//the offset of each layer from the origin of the text
+	private final int[] lefts, tops;
+
+	//when each cached line was last drawn, so we know which one to replace
+	private final long[] used;
+
+	//counts every draw
+	private long clock = 0;
+
+	//the rectangle around the text being drawn
+	private final Rect bounds = new Rect();
+
+	//re-used to draw on each layer
+	private final Canvas layerCanvas = new Canvas();
+
+	/**
+	 * Create a cache with the default size
+	 */
+	public TextCache()
+	{
+		this(DEFAULT_CACHE_SIZE);
+	}
+
+	/**
+	 * Create a cache
+	 * @param cacheSize The number of lines we keep
+	 */
+	public TextCache(final int cacheSize)
+	{
+		this.texts = new String[cacheSize];
+		this.paints = new Paint[cacheSize];
+		this.layers = new Bitmap[cacheSize];
+		this.lefts = new int[cacheSize];
+		this.tops = new int[cacheSize];
+		this.used = new long[cacheSize];
+	}
+
+	/**
+	 * Draw the text, same as {@link Canvas#drawText(String, float, float, Paint)}.<br>
+	 * The paint is expected not to change once used, a different paint is cached separately
+	 * @param canvas The canvas we draw on
+	 * @param text The text
+	 * @param paint The paint of the text
+	 * @param x x-coordinate of the start of the text
+	 * @param y y-coordinate of the baseline of the text
+	 */
+	public void draw(final Canvas canvas, final String text, final Paint paint, final int x, final int y)
+	{
+		if (text == null || text.length() == 0)
+			return;
+
+		final int slot = getSlot(text, paint);
+
+		canvas.drawBitmap(layers[slot], x + lefts[slot], y + tops[slot], null);
+	}
+
+	/**
+	 * Get the slot of the text, the text is drawn on a layer if not cached
+	 * @param text The text
+	 * @param paint The paint of the text
+	 * @return The index of the cached line
+	 */
+	private int getSlot(final String text, final Paint paint)
+	{
+		clock++;
+
+		//the cached line we replace if not found, an empty slot first else the least recently drawn
+		int slot = 0;
+
+		for (int index = 0; index < layers.length; index++)
+		{
+			if (layers[index] != null && paints[index] == paint && texts[index].equals(text))
+			{
+				used[index] = clock;
+				return index;
+			}
+
+			if (layers[slot] != null && (layers[index] == null || used[index] < used[slot]))
+				slot = index;
+		}
+
+		//get the rectangle around the text
+		paint.getTextBounds(text, 0, text.length(), bounds);
+
+		final int width = Math.max(1, bounds.width());
+		final int height = Math.max(1, bounds.height());
+
+		//the layer is only created again when the size differs
+		if (layers[slot] == null || layers[slot].getWidth() != width || layers[slot].getHeight() != height)
+		{
+			if (layers[slot] != null)
+				layers[slot].recycle();
+
+			layers[slot] = Bitmap.createBitmap(width, height, Bitmap.Config.ARGB_8888);
+		}
+		else
+		{
+			layers[slot].eraseColor(Color.TRANSPARENT);
+		}
+
+		//draw the text relative to the layer
+		layerCanvas.setBitmap(layers[slot]);
+		layerCanvas.drawText(text, -bounds.left, -bounds.top, paint);
+
+		texts[slot] = text;
+		paints[slot] = paint;
+		lefts[slot] = bounds.left;
+		tops[slot] = bounds.top;
+		used[slot] = clock;
+
+		return slot;
+	}
+
+	/**
+	 * Recycle the cached lines
+	 */
+	public void recycle()
+	{
+		for (int index = 0; index < layers.length; index++)
+		{
+			if (layers[index] != null)
+			{
+				layers[index].recycle();
+				layers[index] = null;
+			}
+
+			texts[index] = null;
+			paints[index] = null;
+		}
+	}
+}
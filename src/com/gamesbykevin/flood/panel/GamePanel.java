@@ -1,6 +1,7 @@
 package com.gamesbykevin.flood.panel;
 
 import android.graphics.Canvas;
+import android.util.Log;
 import android.view.MotionEvent;
 import android.view.SurfaceHolder;
 import android.view.SurfaceView;
@@ -8,24 +9,30 @@ import android.view.SurfaceView;
 import com.gamesbykevin.androidframework.resources.Audio;
 import com.gamesbykevin.androidframework.resources.Disposable;
 import com.gamesbykevin.flood.assets.Assets;
+import com.gamesbykevin.flood.metrics.Metrics;
 import com.gamesbykevin.flood.screen.ScreenManager;
 import com.gamesbykevin.flood.screen.ScreenManager.State;
 import com.gamesbykevin.flood.thread.MainThread;
 import com.gamesbykevin.flood.MainActivity;
 
+import java.io.File;
+import java.io.IOException;
 import java.util.Random;
 
 /**
  * Game Panel class
  * @author GOD
  */
-public class GamePanel extends SurfaceView implements SurfaceHolder.Callback, Disposable
+public class GamePanel extends SurfaceView implements SurfaceHolder.Callback, TouchQueue.Listener, Disposable
 {
     /**
      * Our random object used to make random decisions
      */
     public static Random RANDOM = new Random(System.nanoTime());
     
+    //the tag of our log messages
+    private static final String LOG_TAG = "Flood";
+    
     //default dimensions of window for this game
     public static final int WIDTH = 480;
     public static final int HEIGHT = 800;
@@ -42,6 +49,9 @@ public class GamePanel extends SurfaceView implements SurfaceHolder.Callback, Di
     //did motion event down happen
     private boolean down = false;
     
+    //the touch events waiting for the game thread
+    private final TouchQueue touches = new TouchQueue();
+    
     //get the ratio of the users screen compared to the default dimensions for the motion event
     private float scaleMotionX, scaleMotionY;
 
@@ -186,8 +196,14 @@ public class GamePanel extends SurfaceView implements SurfaceHolder.Callback, Di
 	                	break;
                 }
                 
-                //update the screen/game etc.. with the specified motion events
-                return getScreen().update(event.getActionMasked(), x, y);
+                //the game thread will update the screen/game etc.. with the specified motion events
+                touches.offer(event.getActionMasked(), x, y, event.getEventTime());
+                
+                //the game thread may be idle, wake it to handle the input
+                wake();
+                
+                //we always want the additional motion events, the screens decide what to do with them
+                return true;
             }
         }
         catch (Exception e)
@@ -207,8 +223,9 @@ public class GamePanel extends SurfaceView implements SurfaceHolder.Callback, Di
     {
         try
         {
-            //load assets
-            Assets.load(getActivity());
+            //load the menu assets, the game assets continue loading in the background
+            Assets.loadMenu(getActivity());
+            Assets.loadGame(getActivity());
             
             //create if null
             if (RANDOM == null)
@@ -226,6 +243,9 @@ public class GamePanel extends SurfaceView implements SurfaceHolder.Callback, Di
             	getThread().start();
             }
             
+            //present the frames to the new surface
+            getThread().setSurface(true, getWidth(), getHeight());
+            
             //flag the thread as not paused
             getThread().setPause(false);
             
@@ -252,8 +272,11 @@ public class GamePanel extends SurfaceView implements SurfaceHolder.Callback, Di
             //stop all audio while paused
             Audio.stop();
             
-            //flag the thread as paused
-            getThread().setPause(false);
+            //flag the thread as paused, there is no surface to render to
+            getThread().setPause(true);
+            
+            //stop presenting frames before the surface is gone
+            getThread().setSurface(false, 0, 0);
             
             //set the state
             getScreen().setState(State.Paused);
@@ -268,7 +291,72 @@ public class GamePanel extends SurfaceView implements SurfaceHolder.Callback, Di
     @Override
     public void surfaceChanged(SurfaceHolder holder, int format, int width, int height)
     {
-        //does anything need to be done here?
+        //scale the frames to the new size
+        if (getThread() != null)
+        	getThread().setSurface(true, width, height);
+    }
+    
+    /**
+     * Update the screen/game etc.. with the touch event.<br>
+     * This is called on the game thread for each event in the queue
+     */
+    @Override
+    public void onTouch(final int action, final float x, final float y, final long time) throws Exception
+    {
+    	//with the diagnostics enabled a second finger toggles the timings overlay
+    	if (Metrics.hasDiagnostics() && action == MotionEvent.ACTION_POINTER_DOWN)
+    	{
+    		//when hidden, export the timings so they can be collected from the device
+    		if (!Metrics.toggleOverlay())
+    			exportMetrics();
+    		
+    		return;
+    	}
+    	
+    	getScreen().update(action, x, y);
+    }
+    
+    /**
+     * Export the timings to the log, and to a file in the external files directory of the app.<br>
+     * The file can be collected from the device without root access
+     */
+    public void exportMetrics()
+    {
+    	Log.i(LOG_TAG, Metrics.dump());
+    	
+    	final File directory = getActivity().getExternalFilesDir(null);
+    	
+    	//the external storage is not available
+    	if (directory == null)
+    		return;
+    	
+    	try
+    	{
+    		Metrics.export(new File(directory, Metrics.EXPORT_NAME));
+    	}
+    	catch (IOException e)
+    	{
+    		e.printStackTrace();
+    	}
+    }
+    
+    /**
+     * Wake the game thread.<br>
+     * The thread waits while the current screen has nothing to update, so call this when something changes
+     */
+    public void wake()
+    {
+    	if (getThread() != null)
+    		getThread().wake();
+    }
+    
+    /**
+     * Is the game idle?
+     * @return true if the current screen only changes on input or a state change, false otherwise
+     */
+    public boolean isIdle()
+    {
+    	return (getScreen() != null && getScreen().isIdle());
     }
     
     /**
@@ -281,14 +369,18 @@ public class GamePanel extends SurfaceView implements SurfaceHolder.Callback, Di
             //make sure the screen is created first before the thread starts
             if (getScreen() == null)
             {
-                //load all assets
-                Assets.load(getActivity());
+                //load the menu assets, the game assets continue loading in the background
+                Assets.loadMenu(getActivity());
+                Assets.loadGame(getActivity());
 
                 //create new screen manager
                 this.screen = new ScreenManager(this);
             }
             else
             {
+            	//handle the touch events since the previous update
+            	touches.drain(this);
+            	
             	getScreen().update();
             }
         }
@@ -334,6 +426,19 @@ public class GamePanel extends SurfaceView implements SurfaceHolder.Callback, Di
     	return this.scaleRenderY;
     }
     
+    /**
+     * Render the game at the default dimensions.<br>
+     * This is called by the game thread to draw the next frame
+     * @param canvas The canvas of the frame, already scaled to the surface
+     * @throws Exception
+     */
+    public void render(final Canvas canvas) throws Exception
+    {
+    	//make sure the screen object exists
+    	if (getScreen() != null)
+    		getScreen().render(canvas);
+    }
+    
     @Override
     public void onDraw(Canvas canvas)
     {
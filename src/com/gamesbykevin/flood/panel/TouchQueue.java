@@ -0,0 +1,161 @@
+package com.gamesbykevin.flood.panel;
+
+import android.view.MotionEvent;
+
+/**
+ * A lock free queue of touch events, passed from the UI thread to the game thread.<br>
+ * Only one thread may add events and only one thread may remove them.
+ * The events are kept in preallocated primitive arrays, so nothing is created for each event.
+ * @author GOD
+ */
+public final class TouchQueue
+{
+    /**
+     * The default number of events the queue can hold
+     */
+    public static final int DEFAULT_CAPACITY = 64;
+
+    /**
+     * Handles the events removed from the queue
+     */
+    public interface Listener
+    {
+        /**
+         * Handle the touch event
+         * @param action The masked motion event action
+         * @param x x-coordinate
+         * @param y y-coordinate
+         * @param time The time of the event (milliseconds since boot)
+         * @throws Exception
+         */
+        public void onTouch(final int action, final float x, final float y, final long time) throws Exception;
+    }
+
+    //the event data, each index is a slot in the ring
+    private final int[] actions;
+    private final float[] x, y;
+    private final long[] times;
+
+    //used to wrap the position to a slot, the capacity is a power of 2
+    private final int mask;
+
+    //the number of events added, only written by the UI thread
+    private volatile long tail = 0;
+
+    //the number of events removed, only written by the game thread
+    private volatile long head = 0;
+
+    //the number of events dropped because the queue was full, only written by the UI thread
+    private volatile long dropped = 0;
+
+    /**
+     * Create a queue with the default capacity
+     */
+    public TouchQueue()
+    {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Create a queue
+     * @param capacity The number of events the queue can hold, rounded up to a power of 2
+     */
+    public TouchQueue(final int capacity)
+    {
+        final int size = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+
+        this.actions = new int[size];
+        this.x = new float[size];
+        this.y = new float[size];
+        this.times = new long[size];
+        this.mask = size - 1;
+    }
+
+    /**
+     * Add an event to the queue.<br>
+     * This is only to be called by the UI thread
+     * @param action The masked motion event action
+     * @param x x-coordinate
+     * @param y y-coordinate
+     * @param time The time of the event (milliseconds since boot)
+     * @return true if the event was added, false if the queue is full and the event was dropped
+     */
+    public boolean offer(final int action, final float x, final float y, final long time)
+    {
+        final long position = this.tail;
+
+        //the game thread has not caught up
+        if (position - this.head > mask)
+        {
+            this.dropped++;
+            return false;
+        }
+
+        final int slot = (int)(position & mask);
+
+        this.actions[slot] = action;
+        this.x[slot] = x;
+        this.y[slot] = y;
+        this.times[slot] = time;
+
+        //publish the event, the write to the volatile makes the slot visible to the game thread
+        this.tail = position + 1;
+        return true;
+    }
+
+    /**
+     * Remove every event in the queue.<br>
+     * Consecutive move events are coalesced, only the latest position is passed to the listener.
+     * This is only to be called by the game thread
+     * @param listener The listener handling each event
+     * @return The number of events passed to the listener
+     * @throws Exception
+     */
+    public int drain(final Listener listener) throws Exception
+    {
+        //only drain the events added until now
+        final long end = this.tail;
+
+        int count = 0;
+
+        for (long position = this.head; position < end; position++)
+        {
+            final int slot = (int)(position & mask);
+
+            try
+            {
+                //a newer move follows, so this position is already outdated
+                if (actions[slot] == MotionEvent.ACTION_MOVE && position + 1 < end && actions[(int)((position + 1) & mask)] == MotionEvent.ACTION_MOVE)
+                    continue;
+
+                listener.onTouch(actions[slot], x[slot], y[slot], times[slot]);
+                count++;
+            }
+            finally
+            {
+                //free the slot for the UI thread
+                this.head = position + 1;
+            }
+        }
+
+        return count;
+    }
+
+    /**
+     * Is the queue empty?
+     * @return true if there are no events to remove, false otherwise
+     */
+    public boolean isEmpty()
+    {
+        return (this.head == this.tail);
+    }
+
+    /**
+     * Get the dropped count
+     * @return The number of events dropped because the queue was full
+     */
+    public long getDropped()
+    {
+        return this.dropped;
+    }
+}
@@ -0,0 +1,64 @@
+package com.gamesbykevin.flood.render;
+
+import com.gamesbykevin.flood.engine.BoardModel;
+import com.gamesbykevin.flood.engine.FloodEngine;
+
+/**
+ * Draws the squares of a board on a {@link RenderTarget}.<br>
+ * Only the engine is used, so the board can be drawn the same way on a device or on a plain JVM.
+ */
+public final class BoardPainter
+{
+	private BoardPainter()
+	{
+		//no instances, everything is static
+	}
+
+	/**
+	 * Draw every square, row by row
+	 * @param target Where we draw
+	 * @param model The board
+	 * @param current The color of the flooded squares
+	 * @param dimension The pixel size (width/height) of a single square
+	 */
+	public static void paintAll(final RenderTarget target, final BoardModel model, final int current, final int dimension)
+	{
+		for (int index = 0; index < model.getSize(); index++)
+		{
+			//flooded squares are always the current color
+			paintSquare(target, model, index, model.isFlooded(index) ? current : model.getColor(index), dimension);
+		}
+	}
+
+	/**
+	 * Draw only the flooded squares, a move does not change the color of any other square
+	 * @param target Where we draw
+	 * @param model The board
+	 * @param flood The flooded area of the board
+	 * @param current The color of the flooded squares
+	 * @param dimension The pixel size (width/height) of a single square
+	 */
+	public static void paintFlooded(final RenderTarget target, final BoardModel model, final FloodEngine flood, final int current, final int dimension)
+	{
+		for (int position = 0; position < flood.getFloodedSquares(); position++)
+		{
+			paintSquare(target, model, flood.getFloodedSquare(position), current, dimension);
+		}
+	}
+
+	/**
+	 * Draw a single square
+	 * @param target Where we draw
+	 * @param model The board
+	 * @param index The index of the square
+	 * @param color The color to draw
+	 * @param dimension The pixel size (width/height) of a single square
+	 */
+	private static void paintSquare(final RenderTarget target, final BoardModel model, final int index, final int color, final int dimension)
+	{
+		final int x = (index % model.getCols()) * dimension;
+		final int y = (index / model.getCols()) * dimension;
+
+		target.drawSprite(RenderTarget.SHEET_COLORS, color, x, y, x + dimension, y + dimension);
+	}
+}
@@ -0,0 +1,88 @@
+package com.gamesbykevin.flood.render;
+
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.graphics.PorterDuff;
+import android.graphics.Rect;
+
+import com.gamesbykevin.flood.assets.Assets;
+import com.gamesbykevin.flood.assets.SpriteAtlas;
+
+/**
+ * Draws on an android canvas, the sprite sheets are the atlases of {@link Assets}
+ */
+public final class CanvasTarget implements RenderTarget
+{
+	//the atlas of each sheet, in the order of the sheet index
+	private static final Assets.AtlasKey[] SHEETS = Assets.AtlasKey.values();
+
+	//the canvas we draw on
+	private Canvas canvas;
+
+	//the size of the canvas
+	private int width, height;
+
+	//re-used for each rectangle we fill
+	private final Paint paint = new Paint();
+
+	//re-used for each sprite we draw
+	private final Rect source = new Rect(), destination = new Rect();
+
+	/**
+	 * Assign the canvas we draw on
+	 * @param canvas The canvas
+	 * @param width The width of the canvas
+	 * @param height The height of the canvas
+	 */
+	public void setCanvas(final Canvas canvas, final int width, final int height)
+	{
+		this.canvas = canvas;
+		this.width = width;
+		this.height = height;
+	}
+
+	/**
+	 * Get the canvas
+	 * @return The canvas we draw on
+	 */
+	public Canvas getCanvas()
+	{
+		return this.canvas;
+	}
+
+	@Override
+	public int getWidth()
+	{
+		return this.width;
+	}
+
+	@Override
+	public int getHeight()
+	{
+		return this.height;
+	}
+
+	@Override
+	public void clear(final int color)
+	{
+		canvas.drawColor(color, PorterDuff.Mode.SRC);
+	}
+
+	@Override
+	public void fillRect(final int left, final int top, final int right, final int bottom, final int color)
+	{
+		paint.setColor(color);
+		canvas.drawRect(left, top, right, bottom, paint);
+	}
+
+	@Override
+	public void drawSprite(final int sheet, final int region, final int left, final int top, final int right, final int bottom)
+	{
+		final SpriteAtlas atlas = Assets.getAtlas(SHEETS[sheet]);
+
+		atlas.getRegion(region, source);
+		destination.set(left, top, right, bottom);
+
+		canvas.drawBitmap(atlas.getImage(), source, destination, null);
+	}
+}
@@ -0,0 +1,68 @@
+package com.gamesbykevin.flood.render;
+
+/**
+ * Draws a number with the digit glyphs on a {@link RenderTarget}.<br>
+ * The number is split into digits without creating a string.
+ * Nothing here depends on android, so numbers can be drawn the same way on a device or on a plain JVM.
+ */
+public final class DigitPainter
+{
+	/**
+	 * The most digits an int can have
+	 */
+	public static final int MAX_DIGITS = 10;
+
+	private DigitPainter()
+	{
+		//no instances, everything is static
+	}
+
+	/**
+	 * Split the number into digits, without creating a string.<br>
+	 * A negative number is drawn without its sign
+	 * @param value The number
+	 * @param digits Where we store the digits, most significant first. Needs room for {@link #MAX_DIGITS}
+	 * @return The number of digits
+	 */
+	public static int getDigits(final int value, final int[] digits)
+	{
+		long remaining = Math.abs((long)value);
+
+		//count the digits
+		int count = 1;
+
+		for (long tmp = remaining / 10; tmp > 0; tmp /= 10)
+		{
+			count++;
+		}
+
+		//store from the last digit to the first
+		for (int index = count - 1; index >= 0; index--)
+		{
+			digits[index] = (int)(remaining % 10);
+			remaining /= 10;
+		}
+
+		return count;
+	}
+
+	/**
+	 * Draw the digits left to right
+	 * @param target Where we draw
+	 * @param digits The digits, most significant first, see {@link #getDigits(int, int[])}
+	 * @param count The number of digits
+	 * @param x x-coordinate of the first digit
+	 * @param y y-coordinate
+	 * @param glyphWidth The width each glyph is drawn
+	 * @param glyphHeight The height each glyph is drawn
+	 */
+	public static void paint(final RenderTarget target, final int[] digits, final int count, final int x, final int y, final int glyphWidth, final int glyphHeight)
+	{
+		for (int index = 0; index < count; index++)
+		{
+			final int left = x + (index * glyphWidth);
+
+			target.drawSprite(RenderTarget.SHEET_NUMBERS, digits[index], left, y, left + glyphWidth, y + glyphHeight);
+		}
+	}
+}
@@ -0,0 +1,151 @@
+package com.gamesbykevin.flood.render;
+
+/**
+ * The pixels of a sprite sheet, for drawing on a {@link RasterTarget}.<br>
+ * The sprites are the same size and laid out on a grid, like the atlas the game uses.
+ */
+public final class RasterSheet
+{
+	//the pixels of the sheet (ARGB), row by row
+	private final int[] pixels;
+
+	//the size of the sheet
+	private final int width, height;
+
+	//the bounds of each region (left, top, right, bottom)
+	private final int[] regions;
+
+	/**
+	 * Create a sheet of sprites of the same size, ordered left to right, then top to bottom
+	 * @param pixels The pixels of the sheet (ARGB), row by row
+	 * @param width The width of the sheet
+	 * @param height The height of the sheet
+	 * @param cols The number of columns of sprites
+	 * @param rows The number of rows of sprites
+	 * @param spriteWidth The width of each sprite
+	 * @param spriteHeight The height of each sprite
+	 */
+	public RasterSheet(final int[] pixels, final int width, final int height, final int cols, final int rows, final int spriteWidth, final int spriteHeight)
+	{
+		if (pixels.length != width * height)
+			throw new IllegalArgumentException("Expected " + (width * height) + " pixels, found " + pixels.length);
+		if (cols * spriteWidth > width || rows * spriteHeight > height)
+			throw new IllegalArgumentException("The sprites do not fit in the sheet");
+
+		this.pixels = pixels;
+		this.width = width;
+		this.height = height;
+		this.regions = new int[cols * rows * 4];
+
+		int index = 0;
+
+		for (int row = 0; row < rows; row++)
+		{
+			for (int col = 0; col < cols; col++)
+			{
+				regions[index++] = col * spriteWidth;
+				regions[index++] = row * spriteHeight;
+				regions[index++] = (col + 1) * spriteWidth;
+				regions[index++] = (row + 1) * spriteHeight;
+			}
+		}
+	}
+
+	/**
+	 * Create a sheet where each sprite is a single color, when the images are not available
+	 * @param colors The color (ARGB) of each sprite, in a single row
+	 * @param size The width and height of each sprite
+	 * @return The sheet
+	 */
+	public static RasterSheet createSolid(final int[] colors, final int size)
+	{
+		final int width = colors.length * size;
+		final int[] pixels = new int[width * size];
+
+		for (int y = 0; y < size; y++)
+		{
+			for (int x = 0; x < width; x++)
+			{
+				pixels[y * width + x] = colors[x / size];
+			}
+		}
+
+		return new RasterSheet(pixels, width, size, colors.length, 1, size, size);
+	}
+
+	/**
+	 * Get the pixels
+	 * @return The pixels of the sheet (ARGB), row by row
+	 */
+	public int[] getPixels()
+	{
+		return this.pixels;
+	}
+
+	/**
+	 * Get the width
+	 * @return The width of the sheet
+	 */
+	public int getWidth()
+	{
+		return this.width;
+	}
+
+	/**
+	 * Get the height
+	 * @return The height of the sheet
+	 */
+	public int getHeight()
+	{
+		return this.height;
+	}
+
+	/**
+	 * Get the count
+	 * @return The number of sprites in the sheet
+	 */
+	public int getCount()
+	{
+		return (this.regions.length / 4);
+	}
+
+	/**
+	 * Get the left edge
+	 * @param region The index of the sprite
+	 * @return The left edge of the sprite
+	 */
+	public int getLeft(final int region)
+	{
+		return regions[region * 4];
+	}
+
+	/**
+	 * Get the top edge
+	 * @param region The index of the sprite
+	 * @return The top edge of the sprite
+	 */
+	public int getTop(final int region)
+	{
+		return regions[region * 4 + 1];
+	}
+
+	/**
+	 * Get the right edge
+	 * @param region The index of the sprite
+	 * @return The right edge of the sprite (exclusive)
+	 */
+	public int getRight(final int region)
+	{
+		return regions[region * 4 + 2];
+	}
+
+	/**
+	 * Get the bottom edge
+	 * @param region The index of the sprite
+	 * @return The bottom edge of the sprite (exclusive)
+	 */
+	public int getBottom(final int region)
+	{
+		return regions[region * 4 + 3];
+	}
+}
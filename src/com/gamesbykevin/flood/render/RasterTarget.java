@@ -0,0 +1,198 @@
+package com.gamesbykevin.flood.render;
+
+import java.util.Arrays;
+
+/**
+ * A software raster we can draw a frame on without a device.<br>
+ * The pixels are kept in an int array (ARGB), sprites are scaled with the nearest pixel and blended
+ * over what is already drawn, so the same drawing always gives the same pixels.
+ * Frames can be compared with {@link #countDifferences(RasterTarget)} or {@link #getChecksum()}.
+ */
+public final class RasterTarget implements RenderTarget
+{
+	//the pixels (ARGB), row by row
+	private final int[] pixels;
+
+	//the size of the raster
+	private final int width, height;
+
+	//the sprite sheets we can draw, by sheet index
+	private RasterSheet[] sheets = new RasterSheet[2];
+
+	/**
+	 * Create a raster, every pixel is transparent
+	 * @param width The width in pixels
+	 * @param height The height in pixels
+	 */
+	public RasterTarget(final int width, final int height)
+	{
+		this.width = width;
+		this.height = height;
+		this.pixels = new int[width * height];
+	}
+
+	/**
+	 * Assign the pixels of a sprite sheet
+	 * @param sheet The sprite sheet index
+	 * @param pixels The pixels of the sheet
+	 */
+	public void setSheet(final int sheet, final RasterSheet pixels)
+	{
+		if (sheet >= sheets.length)
+			sheets = Arrays.copyOf(sheets, sheet + 1);
+
+		sheets[sheet] = pixels;
+	}
+
+	@Override
+	public int getWidth()
+	{
+		return this.width;
+	}
+
+	@Override
+	public int getHeight()
+	{
+		return this.height;
+	}
+
+	/**
+	 * Get the pixels
+	 * @return The pixels (ARGB), row by row
+	 */
+	public int[] getPixels()
+	{
+		return this.pixels;
+	}
+
+	@Override
+	public void clear(final int color)
+	{
+		Arrays.fill(pixels, color);
+	}
+
+	@Override
+	public void fillRect(final int left, final int top, final int right, final int bottom, final int color)
+	{
+		//only the part inside the raster
+		final int x1 = Math.max(0, left), y1 = Math.max(0, top);
+		final int x2 = Math.min(width, right), y2 = Math.min(height, bottom);
+
+		for (int y = y1; y < y2; y++)
+		{
+			final int row = y * width;
+
+			for (int x = x1; x < x2; x++)
+			{
+				pixels[row + x] = blend(color, pixels[row + x]);
+			}
+		}
+	}
+
+	@Override
+	public void drawSprite(final int sheet, final int region, final int left, final int top, final int right, final int bottom)
+	{
+		final RasterSheet source = sheets[sheet];
+
+		if (source == null)
+			throw new IllegalStateException("No pixels assigned for sheet " + sheet);
+
+		if (right <= left || bottom <= top)
+			return;
+
+		final int[] image = source.getPixels();
+		final int stride = source.getWidth();
+
+		final int sourceX = source.getLeft(region), sourceY = source.getTop(region);
+		final int sourceWidth = source.getRight(region) - sourceX;
+		final int sourceHeight = source.getBottom(region) - sourceY;
+
+		final int destinationWidth = right - left, destinationHeight = bottom - top;
+
+		//only the part inside the raster
+		final int x1 = Math.max(0, left), y1 = Math.max(0, top);
+		final int x2 = Math.min(width, right), y2 = Math.min(height, bottom);
+
+		for (int y = y1; y < y2; y++)
+		{
+			//the nearest source row, sampled at the center of the pixel
+			final int sourceRow = (sourceY + (int)(((long)(y - top) * 2 + 1) * sourceHeight / (destinationHeight * 2))) * stride;
+			final int row = y * width;
+
+			for (int x = x1; x < x2; x++)
+			{
+				final int color = image[sourceRow + sourceX + (int)(((long)(x - left) * 2 + 1) * sourceWidth / (destinationWidth * 2))];
+
+				pixels[row + x] = blend(color, pixels[row + x]);
+			}
+		}
+	}
+
+	/**
+	 * Draw a color over another (source over).<br>
+	 * The pixels are not premultiplied, so each color is weighted by its alpha and the result is divided by the alpha
+	 * of the result. A color drawn over a transparent pixel keeps its color, the same as an android canvas
+	 * @param color The color drawn (ARGB)
+	 * @param background The color already drawn (ARGB)
+	 * @return The blended color
+	 */
+	private static int blend(final int color, final int background)
+	{
+		final int alpha = color >>> 24;
+
+		//nothing to blend for opaque or transparent pixels
+		if (alpha == 255)
+			return color;
+		if (alpha == 0)
+			return background;
+
+		//the weight of each color, scaled by 255 * 255
+		final int weight = alpha * 255;
+		final int backgroundWeight = (background >>> 24) * (255 - alpha);
+		final int total = weight + backgroundWeight;
+
+		final int a = (total + 127) / 255;
+		final int r = (((color >> 16) & 0xff) * weight + ((background >> 16) & 0xff) * backgroundWeight + total / 2) / total;
+		final int g = (((color >> 8) & 0xff) * weight + ((background >> 8) & 0xff) * backgroundWeight + total / 2) / total;
+		final int b = ((color & 0xff) * weight + (background & 0xff) * backgroundWeight + total / 2) / total;
+
+		return (a << 24) | (r << 16) | (g << 8) | b;
+	}
+
+	/**
+	 * Count the pixels that are not the same
+	 * @param other The raster we compare to, with the same size
+	 * @return The number of pixels that differ
+	 */
+	public int countDifferences(final RasterTarget other)
+	{
+		if (other.width != width || other.height != height)
+			throw new IllegalArgumentException("Expected " + width + "x" + height + ", found " + other.width + "x" + other.height);
+
+		int count = 0;
+
+		for (int index = 0; index < pixels.length; index++)
+		{
+			if (pixels[index] != other.pixels[index])
+				count++;
+		}
+
+		return count;
+	}
+
+	/**
+	 * Get a checksum of the pixels, frames with the same pixels have the same checksum (FNV-1a)
+	 * @return The checksum
+	 */
+	public long getChecksum()
+	{
+		long hash = 0xcbf29ce484222325L;
+
+		for (int index = 0; index < pixels.length; index++)
+		{
+			hash = (hash ^ pixels[index]) * 0x100000001b3L;
+		}
+
+		return hash;
+	}
+}
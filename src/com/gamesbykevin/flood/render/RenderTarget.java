@@ -0,0 +1,61 @@
+package com.gamesbykevin.flood.render;
+
+/**
+ * Something we draw a frame on.<br>
+ * The game draws on an android canvas, the same drawing can be done on a software raster
+ * so a frame can be drawn, measured and compared without a device.
+ * Nothing here depends on android, so implementations can run on a plain JVM.
+ * The board, the switches and the digits are drawn through this, the rest of the frame (the game and the screens)
+ * still draws on the canvas directly.
+ */
+public interface RenderTarget
+{
+	/**
+	 * The sprite sheet of the square colors, same as the ordinal of the atlas key
+	 */
+	public static final int SHEET_COLORS = 0;
+
+	/**
+	 * The sprite sheet of the digits 0 - 9, same as the ordinal of the atlas key
+	 */
+	public static final int SHEET_NUMBERS = 1;
+
+	/**
+	 * Get the width
+	 * @return The width of the target in pixels
+	 */
+	public int getWidth();
+
+	/**
+	 * Get the height
+	 * @return The height of the target in pixels
+	 */
+	public int getHeight();
+
+	/**
+	 * Replace every pixel with the color
+	 * @param color The color (ARGB)
+	 */
+	public void clear(final int color);
+
+	/**
+	 * Fill the rectangle with the color, blended with what is already drawn
+	 * @param left Left edge
+	 * @param top Top edge
+	 * @param right Right edge (exclusive)
+	 * @param bottom Bottom edge (exclusive)
+	 * @param color The color (ARGB)
+	 */
+	public void fillRect(final int left, final int top, final int right, final int bottom, final int color);
+
+	/**
+	 * Draw a sprite, scaled to the destination
+	 * @param sheet The sprite sheet, see {@link #SHEET_COLORS} and {@link #SHEET_NUMBERS}
+	 * @param region The index of the sprite in the sheet
+	 * @param left Left edge
+	 * @param top Top edge
+	 * @param right Right edge (exclusive)
+	 * @param bottom Bottom edge (exclusive)
+	 */
+	public void drawSprite(final int sheet, final int region, final int left, final int top, final int right, final int bottom);
+}
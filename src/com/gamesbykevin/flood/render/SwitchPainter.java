@@ -0,0 +1,61 @@
+package com.gamesbykevin.flood.render;
+
+/**
+ * Draws the row of color switches on a {@link RenderTarget}.<br>
+ * The switch of the current color is not drawn, as it can't be picked.
+ * Nothing here depends on android, so the switches can be drawn the same way on a device or on a plain JVM.
+ */
+public final class SwitchPainter
+{
+	/**
+	 * The default size of a switch
+	 */
+	public static final int DIMENSION = 64;
+
+	/**
+	 * The pixel space between each switch
+	 */
+	public static final int PADDING = 15;
+
+	/**
+	 * No switch is hidden
+	 */
+	public static final int NONE = -1;
+
+	private SwitchPainter()
+	{
+		//no instances, everything is static
+	}
+
+	/**
+	 * Get the x-coordinate of a switch, the row of switches is centered
+	 * @param width The width we center the row in
+	 * @param total The total number of switches
+	 * @param index The index of the switch
+	 * @return The x-coordinate of the switch
+	 */
+	public static int getX(final int width, final int total, final int index)
+	{
+		return (width / 2) - (((total * DIMENSION) + ((total - 1) * PADDING)) / 2) + (index * (DIMENSION + PADDING));
+	}
+
+	/**
+	 * Draw each switch except the hidden one, the color of a switch is its index
+	 * @param target Where we draw, the row is centered in the width of the target
+	 * @param total The total number of switches
+	 * @param hidden The index of the switch we don't draw, or {@link #NONE}
+	 * @param y The y-coordinate of the row
+	 */
+	public static void paint(final RenderTarget target, final int total, final int hidden, final int y)
+	{
+		for (int index = 0; index < total; index++)
+		{
+			if (index == hidden)
+				continue;
+
+			final int x = getX(target.getWidth(), total, index);
+
+			target.drawSprite(RenderTarget.SHEET_COLORS, index, x, y, x + DIMENSION, y + DIMENSION);
+		}
+	}
+}
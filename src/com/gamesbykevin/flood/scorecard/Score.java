@@ -12,11 +12,20 @@ public final class Score
     //the number of colors in the level
     private final int colors;
     
-    protected Score(final int level, final int colors)
+    //the fewest moves and fastest time (milliseconds) to complete the level
+    private final int moves, time;
+    
+    //the number of times the level was played to the end
+    private final int attempts;
+    
+    protected Score(final int level, final int colors, final int moves, final int time, final int attempts)
     {
     	//assign default values
     	this.level = level;
     	this.colors = colors;
+    	this.moves = moves;
+    	this.time = time;
+    	this.attempts = attempts;
     }
     
     /**
@@ -36,4 +45,31 @@ public final class Score
     {
         return this.colors;
     }
+    
+    /**
+     * Get the best moves
+     * @return The fewest moves needed to complete the level, {@link ScoreCard#UNKNOWN} if not recorded
+     */
+    public int getBestMoves()
+    {
+        return this.moves;
+    }
+    
+    /**
+     * Get the best time
+     * @return The fastest time to complete the level (milliseconds), {@link ScoreCard#UNKNOWN} if not recorded
+     */
+    public int getBestTime()
+    {
+        return this.time;
+    }
+    
+    /**
+     * Get the attempts
+     * @return The number of times the level was played to the end, won or lost
+     */
+    public int getAttempts()
+    {
+        return this.attempts;
+    }
 }
\ No newline at end of file
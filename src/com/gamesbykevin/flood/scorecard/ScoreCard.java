@@ -5,18 +5,115 @@ import android.app.Activity;
 import com.gamesbykevin.androidframework.io.storage.Internal;
 import com.gamesbykevin.flood.game.Game;
 import com.gamesbykevin.flood.screen.OptionsScreen;
+import com.gamesbykevin.flood.storage.StorageExecutor;
+import com.gamesbykevin.flood.storage.journal.Journal;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.io.File;
+import java.io.IOException;
+import java.util.BitSet;
 
 /**
- * Here we will track the completed levels and save it to the internal storage
+ * Here we will track the completed levels and save it to the internal storage.<br>
+ * The scores are kept in primitive arrays indexed by color setting and level, so every lookup is constant time.
+ * The scores are saved as a binary snapshot ({@link ScoreCardFormat}) read with a single read when the game starts.
+ * Each change is appended as a single record to a {@link Journal} by the {@link StorageExecutor}, so the game thread
+ * never waits on the storage. Once the journal has enough records a new snapshot is written and the journal is emptied.
+ * The scores saved as text by earlier versions are copied to a snapshot the first time, and then deleted
  * @author GOD
  */
 public final class ScoreCard extends Internal
 {
-    //list of scores
-    private List<Score> scores;
+    /**
+     * Notified when the scores change
+     */
+    public interface Listener
+    {
+        /**
+         * A level was completed for the first time
+         * @param level The level index
+         * @param colors The colors index
+         */
+        public void onCompleted(final int level, final int colors);
+    }
+    
+    /**
+     * The number of color settings we keep scores for
+     */
+    public static final int COLOR_SETTINGS = 4;
+    
+    /**
+     * The number of levels we keep scores for, for each color setting
+     */
+    public static final int LEVELS = Game.LEVEL_SELECT_TOTAL;
+    
+    /**
+     * The value of the best moves and best time when unknown, for levels completed before they were recorded
+     */
+    public static final int UNKNOWN = 0;
+    
+    //the completed levels
+    private final BitSet completed = new BitSet(COLOR_SETTINGS * LEVELS);
+    
+    //the fewest moves needed to complete each level
+    private final short[] moves = new short[COLOR_SETTINGS * LEVELS];
+    
+    //the fastest time to complete each level (milliseconds)
+    private final int[] times = new int[COLOR_SETTINGS * LEVELS];
+    
+    //the number of times each level was played to the end
+    private final short[] attempts = new short[COLOR_SETTINGS * LEVELS];
+    
+    /**
+     * The name of the journal file
+     */
+    public static final String JOURNAL_NAME = "ScoreCard.journal";
+    
+    /**
+     * The name of the snapshot file
+     */
+    public static final String SNAPSHOT_NAME = "ScoreCard.bin";
+    
+    /**
+     * The number of journal records before a new snapshot is written
+     */
+    public static final int SNAPSHOT_RECORDS = Journal.COMPACT_MIN_RECORDS;
+    
+    //the fields of each journal record
+    private static final int FIELD_COMPLETED = 0;
+    private static final int FIELD_MOVES = 1;
+    private static final int FIELD_TIME = 2;
+    private static final int FIELD_ATTEMPTS = 3;
+    private static final int FIELDS = 4;
+    
+    //where every change is written, null if the journal could not be opened
+    private volatile Journal journal;
+    
+    //the scores changed since they were written
+    private final BitSet dirty = new BitSet(COLOR_SETTINGS * LEVELS);
+    
+    //do we write a new snapshot with the next write
+    private boolean snapshot = false;
+    
+    //the snapshot of the scores
+    private final File snapshotFile;
+    
+    /**
+     * The name of the file of the scores saved as text by earlier versions
+     */
+    public static final String LEGACY_NAME = "ScoreCard";
+    
+    //the scores saved as text by earlier versions, deleted once a snapshot is written
+    private volatile File legacyFile;
+    
+    //writes the changed scores on the storage thread
+    private final StorageExecutor.Writer writer = new StorageExecutor.Writer()
+    {
+        @Override
+        public int write() throws IOException
+        {
+            return writeDirty();
+        }
+    };
     
     /**
      * New score separator string
@@ -31,16 +128,161 @@ public final class ScoreCard extends Internal
     //our game reference object
     private final Game game;
     
+    //notified when the scores change, may be null
+    private Listener listener;
+    
     public ScoreCard(final Game game, final Activity activity)
     {
-        super("ScoreCard", activity);
+        super(LEGACY_NAME, activity);
         
         //store our game reference object
         this.game = game;
         
-        //create new score
-        this.scores = new ArrayList<Score>();
+        //the files of the scores
+        this.snapshotFile = new File(activity.getFilesDir(), SNAPSHOT_NAME);
+        final File file = new File(activity.getFilesDir(), JOURNAL_NAME);
+        this.legacyFile = new File(activity.getFilesDir(), LEGACY_NAME);
+        
+        //the scores of the last snapshot
+        if (snapshotFile.exists())
+        {
+            try
+            {
+                ScoreCardFormat.decode(ScoreCardFormat.read(snapshotFile), COLOR_SETTINGS, LEVELS, completed, moves, times, attempts);
+                
+                //the scores saved as text are in the snapshot
+                deleteLegacy();
+            }
+            catch (IOException e)
+            {
+                //keep the file we can't read aside, it is replaced by the next snapshot
+                e.printStackTrace();
+                snapshotFile.renameTo(new File(snapshotFile.getPath() + ".bad"));
+            }
+        }
+        
+        //the scores saved as text by earlier versions, the changes in the journal are newer
+        if (!snapshotFile.exists() && legacyFile.exists())
+        	migrateLegacy();
         
+        try
+        {
+            //the keys of the journal depend on the number of levels
+            final int capacity = Journal.readCapacity(file);
+            
+            //the journal was written with a different number of levels, move its scores to a snapshot at the new size
+            if (capacity > 0 && capacity != COLOR_SETTINGS * LEVELS)
+            	migrateJournal(file, capacity);
+            
+            //we write our own snapshot instead
+            journal = new Journal(file, COLOR_SETTINGS * LEVELS, FIELDS);
+            journal.setAutoCompact(false);
+            journal.open();
+            
+            //the changes since the snapshot
+            apply(journal, LEVELS);
+        }
+        catch (IOException e)
+        {
+            //never replace a file we can't read, every write is then a snapshot
+            e.printStackTrace();
+            journal = null;
+        }
+    }
+    
+    /**
+     * Load the scores saved as text by earlier versions and write them as the first snapshot.<br>
+     * The snapshot is written before the journal is opened, so the text is read again on the next launch until it is safely replaced
+     */
+    private void migrateLegacy()
+    {
+    	loadLegacy();
+    	
+    	try
+    	{
+    		ScoreCardFormat.write(snapshotFile, ScoreCardFormat.encode(COLOR_SETTINGS, LEVELS, completed, moves, times, attempts));
+    		deleteLegacy();
+    	}
+    	catch (IOException e)
+    	{
+    		//the text is kept, it is loaded again on the next launch
+    		e.printStackTrace();
+    	}
+    }
+    
+    /**
+     * Copy the scores of a journal written with a different number of levels.<br>
+     * The scores are saved in a snapshot at the new size before the journal is removed, so nothing is lost if we stop half way
+     * @param file The file of the journal
+     * @param capacity The number of keys the journal was written with
+     * @throws IOException if the journal can't be read, or the snapshot can't be written
+     */
+    private void migrateJournal(final File file, final int capacity) throws IOException
+    {
+    	final Journal previous = new Journal(file, capacity, FIELDS);
+    	previous.setAutoCompact(false);
+    	
+    	try
+    	{
+    		previous.open();
+    		apply(previous, Math.max(1, capacity / COLOR_SETTINGS));
+    	}
+    	finally
+    	{
+    		previous.close();
+    	}
+    	
+    	ScoreCardFormat.write(snapshotFile, ScoreCardFormat.encode(COLOR_SETTINGS, LEVELS, completed, moves, times, attempts));
+    	deleteLegacy();
+    	
+    	if (!file.delete())
+    		throw new IOException("Unable to delete " + file);
+    }
+    
+    /**
+     * Apply the records of the journal to the scores
+     * @param journal The journal
+     * @param levels The number of levels of each color setting the journal was written with
+     */
+    private void apply(final Journal journal, final int levels)
+    {
+    	for (int key = 0; key < journal.getCapacity(); key++)
+    	{
+    		if (!journal.has(key))
+    			continue;
+    		
+    		//skip scores we have no room for
+    		if (!isValid(key % levels, key / levels))
+    			continue;
+    		
+    		final int index = getKey(key % levels, key / levels);
+    		
+    		completed.set(index, journal.get(key, FIELD_COMPLETED) != 0);
+    		moves[index] = (short)journal.get(key, FIELD_MOVES);
+    		times[index] = journal.get(key, FIELD_TIME);
+    		attempts[index] = (short)journal.get(key, FIELD_ATTEMPTS);
+    	}
+    }
+    
+    /**
+     * Delete the scores saved as text by earlier versions, once they are in a snapshot
+     */
+    private void deleteLegacy()
+    {
+    	final File legacyFile = this.legacyFile;
+    	
+    	if (legacyFile == null)
+    		return;
+    	
+    	if (!legacyFile.exists() || legacyFile.delete())
+    		this.legacyFile = null;
+    }
+    
+    /**
+     * Load the scores saved as text in the internal storage
+     */
+    private void loadLegacy()
+    {
         //make sure content exists before we try to load it
         if (super.getContent().toString().trim().length() > 0)
         {
@@ -56,13 +298,81 @@ public final class ScoreCard extends Internal
                 //get the information
                 final int level = Integer.parseInt(data[0]);
                 final int colors = Integer.parseInt(data[1]);
-
-                //load the score to our list
-                update(level, colors);
+                
+                //skip scores we have no room for
+                if (!isValid(level, colors))
+                	continue;
+                
+                final int key = getKey(level, colors);
+                
+                //older files only have the level and colors
+                if (data.length >= 6)
+                {
+                	completed.set(key, Integer.parseInt(data[2]) != 0);
+                	moves[key] = (short)Integer.parseInt(data[3]);
+                	times[key] = Integer.parseInt(data[4]);
+                	attempts[key] = (short)Integer.parseInt(data[5]);
+                }
+                else
+                {
+                	completed.set(key);
+                }
             }
         }
     }
     
+    /**
+     * Assign the listener, notified on the thread that changes the scores
+     * @param listener Notified when the scores change, null for none
+     */
+    public void setListener(final Listener listener)
+    {
+    	this.listener = listener;
+    }
+    
+    /**
+     * Is the level and colors one we keep a score for?
+     * @param level The level index
+     * @param colors The colors index
+     * @return true if the level and colors are in range, false otherwise
+     */
+    public static boolean isValid(final int level, final int colors)
+    {
+    	return (level >= 0 && level < LEVELS && colors >= 0 && colors < COLOR_SETTINGS);
+    }
+    
+    /**
+     * Get the index of the score in our arrays
+     * @param level The level index
+     * @param colors The colors index
+     * @return The index of the score
+     */
+    private static int getKey(final int level, final int colors)
+    {
+    	if (!isValid(level, colors))
+    		throw new IllegalArgumentException("No score for level " + level + " and colors " + colors);
+    	
+    	return (colors * LEVELS) + level;
+    }
+    
+    /**
+     * Get the current level index
+     * @return The level index selected
+     */
+    private int getLevel()
+    {
+    	return game.getLevelSelect().getLevelIndex();
+    }
+    
+    /**
+     * Get the current colors index
+     * @return The colors index selected in the options
+     */
+    private int getColors()
+    {
+    	return game.getScreen().getScreenOptions().getIndex(OptionsScreen.INDEX_BUTTON_COLORS);
+    }
+    
     /**
      * Do we have the score?<br>
      * We want the score of the specified level and colors
@@ -72,7 +382,7 @@ public final class ScoreCard extends Internal
      */
     public boolean hasScore(final int level, final int colors)
     {
-    	return (getScore(level, colors) != null);
+    	return completed.get(getKey(level, colors));
     }
     
     /**
@@ -83,7 +393,40 @@ public final class ScoreCard extends Internal
     public boolean hasScore()
     {
     	//use the current level index, and colors
-    	return hasScore(game.getLevelSelect().getLevelIndex(), game.getScreen().getScreenOptions().getIndex(OptionsScreen.INDEX_BUTTON_COLORS));
+    	return hasScore(getLevel(), getColors());
+    }
+    
+    /**
+     * Get the best moves
+     * @param level The level index
+     * @param colors The colors index
+     * @return The fewest moves needed to complete the level, {@link #UNKNOWN} if not recorded
+     */
+    public int getBestMoves(final int level, final int colors)
+    {
+    	return moves[getKey(level, colors)];
+    }
+    
+    /**
+     * Get the best time
+     * @param level The level index
+     * @param colors The colors index
+     * @return The fastest time to complete the level (milliseconds), {@link #UNKNOWN} if not recorded
+     */
+    public int getBestTime(final int level, final int colors)
+    {
+    	return times[getKey(level, colors)];
+    }
+    
+    /**
+     * Get the attempts
+     * @param level The level index
+     * @param colors The colors index
+     * @return The number of times the level was played to the end, won or lost
+     */
+    public int getAttempts(final int level, final int colors)
+    {
+    	return attempts[getKey(level, colors)];
     }
     
     /**
@@ -93,80 +436,195 @@ public final class ScoreCard extends Internal
      */
     public Score getScore()
     {
-    	return getScore(game.getLevelSelect().getLevelIndex(), game.getScreen().getScreenOptions().getIndex(OptionsScreen.INDEX_BUTTON_COLORS));
+    	return getScore(getLevel(), getColors());
     }
     
     /**
-     * Get the score object of the specified level and colors
+     * Get the score object of the specified level and colors.<br>
+     * A new object is created for each call, use {@link #hasScore(int, int)} and the getters when checking many levels
      * @param level The level index
      * @param colors The number of colors
      * @return The score object of the specified level and colors, if not found null is returned
      */
     public Score getScore(final int level, final int colors)
     {
-    	//check our list to see if the specified score is better
-    	for (Score score : scores)
-    	{
-    		//if the level and colors match return the score
-    		if (score.getLevel() == level && score.getColors() == colors)
-    			return score;
-    	}
+    	if (!hasScore(level, colors))
+    		return null;
     	
-    	//score was not found
-    	return null;
+    	final int key = getKey(level, colors);
+    	
+    	return new Score(level, colors, moves[key], times[key], attempts[key]);
+    }
+    
+    /**
+     * Count an attempt of the level, when the level is lost
+     * @param level The specified level
+     * @param colors The number of colors used
+     */
+    public synchronized void addAttempt(final int level, final int colors)
+    {
+    	final int key = getKey(level, colors);
+    	
+    	if (attempts[key] < Short.MAX_VALUE)
+    		attempts[key]++;
+    	
+    	//save the attempt
+    	write(key);
     }
     
     /**
      * Update the score with the specified level and colors.<br>
      * If the score does not exist, it will be added.<br>
+     * The attempt is counted and the best moves and time are kept
      * @param level The specified level
      * @param colors The number of colors used
-     * @return true if updating the score was successful, false otherwise
+     * @param moves The number of moves needed to complete the level
+     * @param time The time needed to complete the level (milliseconds)
+     * @return true if the level was completed for the first time or a best was improved, false otherwise
      */
-    public boolean update(final int level, final int colors)
+    public synchronized boolean update(final int level, final int colors, final int moves, final long time)
     {
-    	//if the score does not exist, add it
-    	if (getScore(level, colors) == null)
+    	final int key = getKey(level, colors);
+    	
+    	//score does not exist, so add it
+    	final boolean first = !completed.get(key);
+    	
+    	boolean updated = first;
+    	
+    	if (first)
+    		completed.set(key);
+    	
+    	//keep the fewest moves
+    	if (moves > 0 && (this.moves[key] == UNKNOWN || moves < this.moves[key]))
     	{
-    		//score does not exist, so add it
-    		scores.add(new Score(level, colors));
+    		this.moves[key] = (short)Math.min(moves, Short.MAX_VALUE);
+    		updated = true;
     	}
-    	else
+    	
+    	//keep the fastest time
+    	if (time > 0 && (this.times[key] == UNKNOWN || time < this.times[key]))
     	{
-    		//nothing was updated
-    		return false;
+    		this.times[key] = (int)Math.min(time, Integer.MAX_VALUE);
+    		updated = true;
     	}
     	
+    	if (attempts[key] < Short.MAX_VALUE)
+    		attempts[key]++;
+    	
     	//save the score
-    	save();
+    	write(key);
+    	
+    	//notify the level was completed
+    	if (first && listener != null)
+    		listener.onCompleted(level, colors);
     	
-    	//score was updated
-    	return true;
+    	//was a score added or improved
+    	return updated;
     }
     
     /**
-     * Save the scores to the internal storage
+     * Queue the score to be written to the journal
+     * @param key The index of the score
+     */
+    private void write(final int key)
+    {
+    	dirty.set(key);
+    	StorageExecutor.save(writer);
+    }
+    
+    /**
+     * Append the changed scores to the journal, called on the storage thread.<br>
+     * A new snapshot is written when requested, or when the journal has enough records
+     * @return The number of bytes written
+     * @throws IOException if the journal or the snapshot can't be written
+     */
+    private int writeDirty() throws IOException
+    {
+    	final int[] keys;
+    	final int[][] records;
+    	boolean snapshot;
+    	
+    	//copy the changed scores, so the game thread is never blocked by the storage
+    	synchronized (this)
+    	{
+    		keys = new int[dirty.cardinality()];
+    		records = new int[keys.length][];
+    		
+    		int index = 0;
+    		
+    		for (int key = dirty.nextSetBit(0); key >= 0; key = dirty.nextSetBit(key + 1))
+    		{
+    			keys[index] = key;
+    			records[index] = new int[] {completed.get(key) ? 1 : 0, moves[key], times[key], attempts[key]};
+    			index++;
+    		}
+    		
+    		dirty.clear();
+    		
+    		snapshot = this.snapshot;
+    		this.snapshot = false;
+    	}
+    	
+    	final Journal journal = this.journal;
+    	
+    	int bytes = 0;
+    	
+    	if (journal != null)
+    	{
+	    	for (int index = 0; index < keys.length; index++)
+	    	{
+	    		if (journal.append(keys[index], records[index]))
+	    			bytes += journal.getRecordSize();
+	    	}
+	    	
+	    	//a single sync for every score
+	    	if (bytes > 0)
+	    		journal.sync();
+	    	
+	    	//the journal has grown enough
+	    	if (journal.getRecordCount() >= SNAPSHOT_RECORDS)
+	    		snapshot = true;
+    	}
+    	else if (keys.length > 0)
+    	{
+    		//without a journal every change is a snapshot
+    		snapshot = true;
+    	}
+    	
+    	if (snapshot)
+    	{
+    		final byte[] data;
+    		
+    		//encode every score, the scores changed since the journal was written are included as well
+    		synchronized (this)
+    		{
+    			data = ScoreCardFormat.encode(COLOR_SETTINGS, LEVELS, completed, moves, times, attempts);
+    		}
+    		
+    		ScoreCardFormat.write(snapshotFile, data);
+    		
+    		//the scores saved as text are now in the snapshot
+    		deleteLegacy();
+    		bytes += data.length;
+    		
+    		//every record is now in the snapshot
+    		if (journal != null)
+    			journal.truncate();
+    	}
+    	
+    	return bytes;
+    }
+    
+    /**
+     * Save the scores to the internal storage.<br>
+     * A new snapshot of every score is queued
      */
     @Override
-    public void save()
+    public synchronized void save()
     {
-        //remove all existing content
-        super.getContent().delete(0, super.getContent().length());
+        snapshot = true;
         
-        for (Score score : scores)
-        {
-            //if content exists, add delimiter to separate each score
-            if (super.getContent().length() > 0)
-                super.getContent().append(NEW_SCORE);
-            
-            //write level, size, and time
-            super.getContent().append(score.getLevel());
-            super.getContent().append(SEPARATOR);
-            super.getContent().append(score.getColors());
-        }
-        
-        //save the content to physical internal storage location
-        super.save();
+        StorageExecutor.save(writer);
     }
     
     @Override
@@ -174,10 +632,23 @@ public final class ScoreCard extends Internal
     {
         super.dispose();
         
-        if (scores != null)
+        //write anything still queued
+        StorageExecutor.flush();
+        
+        if (journal != null)
         {
-            scores.clear();
-            scores = null;
+        	try
+        	{
+        		journal.close();
+        	}
+        	catch (IOException e)
+        	{
+        		e.printStackTrace();
+        	}
+        	
+        	journal = null;
         }
+        
+        completed.clear();
     }
 }
\ No newline at end of file
@@ -0,0 +1,332 @@
+package com.gamesbykevin.flood.scorecard;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.BitSet;
+
+/**
+ * The binary format of a score card snapshot.<br>
+ * The header is the magic, the version, the number of color settings and the number of levels.
+ * Then for each color setting the levels played and the levels completed, as bitsets of 64 bit words,
+ * followed by the moves, time and attempts of each level played as varints.
+ * A snapshot is read with a single read and decoded without creating any strings.
+ * Nothing here depends on android.
+ * @author GOD
+ */
+public final class ScoreCardFormat
+{
+    /**
+     * The first bytes of every snapshot
+     */
+    public static final int MAGIC = 0x46534344;
+
+    /**
+     * The version of the format
+     */
+    public static final int VERSION = 1;
+
+    private ScoreCardFormat()
+    {
+        //no instances, everything is static
+    }
+
+    /**
+     * Encode the scores
+     * @param colorSettings The number of color settings
+     * @param levels The number of levels of each color setting
+     * @param completed The completed levels, indexed by color setting and level
+     * @param moves The best moves of each level
+     * @param times The best time of each level
+     * @param attempts The attempts of each level
+     * @return The bytes of the snapshot
+     */
+    public static byte[] encode(final int colorSettings, final int levels, final BitSet completed, final short[] moves, final int[] times, final short[] attempts)
+    {
+        final ByteArrayOutputStream output = new ByteArrayOutputStream(64 + (colorSettings * levels / 4));
+
+        //header
+        writeInt(output, MAGIC);
+        output.write(VERSION);
+        writeVarint(output, colorSettings);
+        writeVarint(output, levels);
+
+        final int words = (levels + 63) / 64;
+
+        for (int colors = 0; colors < colorSettings; colors++)
+        {
+            final int start = colors * levels;
+
+            //the levels played
+            for (int word = 0; word < words; word++)
+            {
+                long bits = 0;
+
+                for (int bit = 0; bit < 64 && (word * 64) + bit < levels; bit++)
+                {
+                    final int key = start + (word * 64) + bit;
+
+                    if (completed.get(key) || attempts[key] > 0)
+                        bits |= (1L << bit);
+                }
+
+                writeLong(output, bits);
+            }
+
+            //the levels completed
+            for (int word = 0; word < words; word++)
+            {
+                long bits = 0;
+
+                for (int bit = 0; bit < 64 && (word * 64) + bit < levels; bit++)
+                {
+                    if (completed.get(start + (word * 64) + bit))
+                        bits |= (1L << bit);
+                }
+
+                writeLong(output, bits);
+            }
+
+            //the score of each level played
+            for (int level = 0; level < levels; level++)
+            {
+                final int key = start + level;
+
+                if (!completed.get(key) && attempts[key] == 0)
+                    continue;
+
+                writeVarint(output, moves[key]);
+                writeVarint(output, times[key]);
+                writeVarint(output, attempts[key]);
+            }
+        }
+
+        return output.toByteArray();
+    }
+
+    /**
+     * Decode the scores.<br>
+     * Color settings and levels we have no room for are skipped, so the number of levels can change between versions
+     * @param data The bytes of the snapshot
+     * @param colorSettings The number of color settings of the arrays
+     * @param levels The number of levels of each color setting of the arrays
+     * @param completed The completed levels, indexed by color setting and level
+     * @param moves The best moves of each level
+     * @param times The best time of each level
+     * @param attempts The attempts of each level
+     * @throws IOException if the data is not a snapshot, a newer version or is cut short
+     */
+    public static void decode(final byte[] data, final int colorSettings, final int levels, final BitSet completed, final short[] moves, final int[] times, final short[] attempts) throws IOException
+    {
+        final Reader input = new Reader(data);
+
+        try
+        {
+            //header
+            if (input.readInt() != MAGIC)
+                throw new IOException("Not a score card snapshot");
+
+            final int version = input.readByte();
+
+            if (version != VERSION)
+                throw new IOException("Unsupported score card version " + version);
+
+            final int storedColorSettings = input.readVarint();
+            final int storedLevels = input.readVarint();
+            final int words = (storedLevels + 63) / 64;
+
+            final long[] played = new long[words];
+            final long[] won = new long[words];
+
+            for (int colors = 0; colors < storedColorSettings; colors++)
+            {
+                for (int word = 0; word < words; word++)
+                {
+                    played[word] = input.readLong();
+                }
+
+                for (int word = 0; word < words; word++)
+                {
+                    won[word] = input.readLong();
+                }
+
+                //only visit the levels played
+                for (int word = 0; word < words; word++)
+                {
+                    long bits = played[word];
+
+                    while (bits != 0)
+                    {
+                        final int bit = Long.numberOfTrailingZeros(bits);
+                        final int level = (word * 64) + bit;
+                        bits &= bits - 1;
+
+                        final int bestMoves = input.readVarint();
+                        final int bestTime = input.readVarint();
+                        final int attemptCount = input.readVarint();
+
+                        //skip what we have no room for
+                        if (colors >= colorSettings || level >= levels)
+                            continue;
+
+                        final int key = (colors * levels) + level;
+
+                        completed.set(key, (won[word] & (1L << bit)) != 0);
+                        moves[key] = (short)Math.min(bestMoves, Short.MAX_VALUE);
+                        times[key] = bestTime;
+                        attempts[key] = (short)Math.min(attemptCount, Short.MAX_VALUE);
+                    }
+                }
+            }
+        }
+        catch (ArrayIndexOutOfBoundsException e)
+        {
+            throw new IOException("Score card snapshot is cut short");
+        }
+    }
+
+    /**
+     * Read the whole file with a single buffered read
+     * @param file The file
+     * @return The bytes of the file
+     * @throws IOException if the file can't be read
+     */
+    public static byte[] read(final File file) throws IOException
+    {
+        final byte[] data = new byte[(int)file.length()];
+        final FileInputStream input = new FileInputStream(file);
+
+        try
+        {
+            int count = 0;
+
+            while (count < data.length)
+            {
+                final int read = input.read(data, count, data.length - count);
+
+                if (read < 0)
+                    throw new IOException("Unexpected end of " + file);
+
+                count += read;
+            }
+
+            return data;
+        }
+        finally
+        {
+            input.close();
+        }
+    }
+
+    /**
+     * Replace the file, the bytes are written to a new file that is synced and renamed,
+     * so the file is never left half written
+     * @param file The file
+     * @param data The bytes of the file
+     * @throws IOException if the file can't be written
+     */
+    public static void write(final File file, final byte[] data) throws IOException
+    {
+        final File tmp = new File(file.getPath() + ".tmp");
+        final FileOutputStream output = new FileOutputStream(tmp);
+
+        try
+        {
+            output.write(data);
+            output.getFD().sync();
+        }
+        finally
+        {
+            output.close();
+        }
+
+        if (!tmp.renameTo(file))
+        {
+            tmp.delete();
+            throw new IOException("Unable to replace " + file);
+        }
+    }
+
+    private static void writeInt(final ByteArrayOutputStream output, final int value)
+    {
+        output.write(value >>> 24);
+        output.write(value >>> 16);
+        output.write(value >>> 8);
+        output.write(value);
+    }
+
+    private static void writeLong(final ByteArrayOutputStream output, final long value)
+    {
+        writeInt(output, (int)(value >>> 32));
+        writeInt(output, (int)value);
+    }
+
+    /**
+     * Write a positive int with 7 bits per byte, the high bit is set when more bytes follow
+     * @param output Where we write
+     * @param value The value, negative values are written as 0
+     */
+    private static void writeVarint(final ByteArrayOutputStream output, final int value)
+    {
+        int remaining = Math.max(0, value);
+
+        while (remaining > 0x7f)
+        {
+            output.write((remaining & 0x7f) | 0x80);
+            remaining >>>= 7;
+        }
+
+        output.write(remaining);
+    }
+
+    /**
+     * Reads the values of a snapshot from its bytes
+     */
+    private static final class Reader
+    {
+        //the bytes of the snapshot
+        private final byte[] data;
+
+        //where we read next
+        private int position = 0;
+
+        private Reader(final byte[] data)
+        {
+            this.data = data;
+        }
+
+        private int readByte()
+        {
+            return data[position++] & 0xff;
+        }
+
+        private int readInt()
+        {
+            return (readByte() << 24) | (readByte() << 16) | (readByte() << 8) | readByte();
+        }
+
+        private long readLong()
+        {
+            return ((long)readInt() << 32) | (readInt() & 0xffffffffL);
+        }
+
+        private int readVarint() throws IOException
+        {
+            int value = 0;
+
+            for (int shift = 0; shift < 35; shift += 7)
+            {
+                final int next = readByte();
+
+                value |= (next & 0x7f) << shift;
+
+                if ((next & 0x80) == 0)
+                    return value;
+            }
+
+            throw new IOException("Varint is too long");
+        }
+    }
+}
@@ -10,11 +10,11 @@ import android.view.MotionEvent;
 import com.gamesbykevin.androidframework.awt.Button;
 import com.gamesbykevin.androidframework.resources.Audio;
 import com.gamesbykevin.androidframework.resources.Disposable;
-import com.gamesbykevin.androidframework.resources.Font;
 import com.gamesbykevin.androidframework.resources.Images;
 import com.gamesbykevin.androidframework.screen.Screen;
 import com.gamesbykevin.flood.MainActivity;
 import com.gamesbykevin.flood.assets.Assets;
+import com.gamesbykevin.flood.number.TextCache;
 import com.gamesbykevin.flood.panel.GamePanel;
 
 /**
@@ -35,6 +35,12 @@ public class GameoverScreen implements Screen, Disposable
     //where we draw the image
     private int messageX = 0, messageY = 0;
     
+    //the rectangle around the message, re-used for every message
+    private final Rect bounds = new Rect();
+    
+    //draws the message, laid out once for each message
+    private final TextCache text = new TextCache();
+    
     //time we have displayed text
     private long time;
     
@@ -158,9 +164,6 @@ public class GameoverScreen implements Screen, Disposable
         //align button text
         this.buttons.get(INDEX_BUTTON_NEXT).positionText(screen.getPaint());
         
-        //create temporary rectangle
-        Rect tmp = new Rect();
-        
         //create paint text object for the message
         if (paint == null)
         {
@@ -168,14 +171,14 @@ public class GameoverScreen implements Screen, Disposable
         	paint = new Paint();
         	paint.setColor(Color.WHITE);
         	paint.setTextSize(64f);
-	        paint.setTypeface(Font.getFont(Assets.FontGameKey.Default));
+	        paint.setTypeface(Assets.getFont(Assets.FontGameKey.Default));
         }
         
         //get the rectangle around the message
-        paint.getTextBounds(message, 0, message.length(), tmp);
+        paint.getTextBounds(message, 0, message.length(), bounds);
         
         //calculate the position of the message
-        messageX = (GamePanel.WIDTH / 2) - (tmp.width() / 2);
+        messageX = (GamePanel.WIDTH / 2) - (bounds.width() / 2);
         messageY = (int)(GamePanel.HEIGHT * .12);
     }
     
@@ -188,6 +191,15 @@ public class GameoverScreen implements Screen, Disposable
     	this.display = display;
     }
     
+    /**
+     * Is the screen idle?
+     * @return true if the menu is displayed and we only wait for input, false otherwise
+     */
+    public boolean isIdle()
+    {
+    	return hasDisplay();
+    }
+    
     /**
      * Do we display the buttons?
      * @return true = yes, false = no
@@ -328,7 +340,7 @@ public class GameoverScreen implements Screen, Disposable
             
             //if message exists, draw the text
             if (paint != null)
-                canvas.drawText(this.message, messageX, messageY, paint);
+                text.draw(canvas, this.message, paint, messageX, messageY);
         
             //render the buttons
             for (int index = 0; index < buttons.size(); index++)
@@ -344,6 +356,8 @@ public class GameoverScreen implements Screen, Disposable
         if (paint != null)
         	paint = null;
         
+        text.recycle();
+        
         if (buttons != null)
         {
 	        for (int index = 0; index < buttons.size(); index++)
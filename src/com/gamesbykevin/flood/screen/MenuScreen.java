@@ -11,6 +11,7 @@ import com.gamesbykevin.androidframework.resources.Images;
 import com.gamesbykevin.androidframework.screen.Screen;
 import com.gamesbykevin.flood.MainActivity;
 import com.gamesbykevin.flood.assets.Assets;
+import com.gamesbykevin.flood.metrics.StartupTrace;
 import com.gamesbykevin.flood.panel.GamePanel;
 
 import java.util.HashMap;
@@ -303,14 +304,27 @@ public class MenuScreen implements Screen, Disposable
         return true;
     }
     
+    /**
+     * Is the menu idle?
+     * @return true if we are not starting a new game, false otherwise
+     */
+    public boolean isIdle()
+    {
+    	return (!reset);
+    }
+    
     @Override
     public void update() throws Exception
     {
-    	//only reset if we notified the user by displaying the splash screen
-        if (reset && notify)
+    	//make sure the game assets are requested, in case they failed to load before
+    	if (reset)
+    		Assets.loadGame(screen.getPanel().getActivity());
+    	
+    	//only reset if we notified the user by displaying the splash screen, and the game assets are ready
+        if (reset && notify && Assets.isGameLoaded())
         {
-            //load game assets
-            Assets.load(screen.getPanel().getActivity());
+            //the game assets are loaded, this won't wait
+            Assets.awaitGame();
 
             //create the game
             screen.getScreenGame().createGame();
@@ -338,6 +352,9 @@ public class MenuScreen implements Screen, Disposable
         {
 	        //draw main logo
 	        canvas.drawBitmap(logo, ScreenManager.LOGO_X, ScreenManager.LOGO_Y, null);
+	        
+	        //the first menu frame ends the startup trace
+	        StartupTrace.end("first menu frame");
 	
 	        //draw the menu buttons
 	        if (buttons != null)
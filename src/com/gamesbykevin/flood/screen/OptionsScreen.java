@@ -12,6 +12,7 @@ import com.gamesbykevin.androidframework.resources.Disposable;
 import com.gamesbykevin.androidframework.resources.Images;
 import com.gamesbykevin.androidframework.screen.Screen;
 import com.gamesbykevin.flood.assets.Assets;
+import com.gamesbykevin.flood.metrics.Metrics;
 import com.gamesbykevin.flood.panel.GamePanel;
 import com.gamesbykevin.flood.storage.settings.Settings;
 import com.gamesbykevin.flood.MainActivity;
@@ -46,6 +47,19 @@ public class OptionsScreen implements Screen, Disposable
     public static final int INDEX_BUTTON_FACEBOOK = 5;
     public static final int INDEX_BUTTON_TWITTER = 6;
     
+    /**
+     * The hidden developer setting, it is never drawn and is toggled by tapping the logo
+     */
+    public static final int INDEX_BUTTON_DIAGNOSTICS = 7;
+    
+    /**
+     * The number of taps in a row on the logo to toggle the diagnostics
+     */
+    public static final int DIAGNOSTICS_TAPS = 7;
+    
+    //the number of taps in a row on the logo
+    private int logoTaps = 0;
+    
     public OptionsScreen(final ScreenManager screen)
     {
         //our logo reference
@@ -94,6 +108,9 @@ public class OptionsScreen implements Screen, Disposable
         //add social media icons after the above, because the dimensions are different
         addIcons();
         
+        //the hidden developer setting, saved with the other settings
+        addButtonDiagnostics();
+        
         //create our settings object last, which will load the previous settings
         this.settings = new Settings(this, screen.getPanel().getActivity());
     }
@@ -169,6 +186,39 @@ public class OptionsScreen implements Screen, Disposable
         this.buttons.put(INDEX_BUTTON_SOUND, button);
     }
 
+    private void addButtonDiagnostics()
+    {
+        Button button = new Button(Images.getImage(Assets.ImageMenuKey.Button));
+        button.addDescription("Diagnostics: Off");
+        button.addDescription("Diagnostics: On");
+    	this.buttons.put(INDEX_BUTTON_DIAGNOSTICS, button);
+    }
+    
+    /**
+     * Toggle the diagnostics, the timings are exported when they are disabled
+     */
+    private void toggleDiagnostics()
+    {
+    	final Button button = buttons.get(INDEX_BUTTON_DIAGNOSTICS);
+    	
+    	//change index
+    	button.setIndex(button.getIndex() + 1);
+    	
+    	final boolean enabled = (button.getIndex() == 1);
+    	
+    	//export the timings recorded while enabled
+    	if (!enabled)
+    		screen.getPanel().exportMetrics();
+    	
+    	Metrics.setDiagnostics(enabled);
+    	
+        //store our settings
+        settings.save();
+        
+        //play sound effect
+        Audio.play(Assets.AudioMenuKey.Selection);
+    }
+    
     private void addButtonVibrate(final int x, final int y)
     {
         Button button = new Button(Images.getImage(Assets.ImageMenuKey.Button));
@@ -227,6 +277,7 @@ public class OptionsScreen implements Screen, Disposable
 						case INDEX_BUTTON_INSTRUCTIONS:
 						case INDEX_BUTTON_FACEBOOK:
 						case INDEX_BUTTON_TWITTER:
+						case INDEX_BUTTON_DIAGNOSTICS:
 							break;
 							
 						default:
@@ -248,6 +299,23 @@ public class OptionsScreen implements Screen, Disposable
     	if (action != MotionEvent.ACTION_UP)
     		return true;
     	
+    	//tapping the logo in a row toggles the diagnostics
+    	if (x >= ScreenManager.LOGO_X && x < ScreenManager.LOGO_X + logo.getWidth() && y >= ScreenManager.LOGO_Y && y < ScreenManager.LOGO_Y + logo.getHeight())
+    	{
+    		logoTaps++;
+    		
+    		if (logoTaps >= DIAGNOSTICS_TAPS)
+    		{
+    			logoTaps = 0;
+    			toggleDiagnostics();
+    		}
+    		
+    		return false;
+    	}
+    	
+    	//any other tap starts over
+    	logoTaps = 0;
+    	
         if (buttons != null)
         {
         	for (int key = 0; key < buttons.size(); key++)
@@ -259,6 +327,10 @@ public class OptionsScreen implements Screen, Disposable
         		if (button == null)
         			continue;
         		
+        		//the developer setting is hidden, it is toggled by tapping the logo
+        		if (key == INDEX_BUTTON_DIAGNOSTICS)
+        			continue;
+        		
     			//if we did not select this button, skip to the next
     			if (!button.contains(x, y))
     				continue;
@@ -410,6 +482,10 @@ public class OptionsScreen implements Screen, Disposable
 	    				buttons.get(index).render(canvas);
 	    				break;
 	    				
+	    			//the developer setting is hidden
+	    			case INDEX_BUTTON_DIAGNOSTICS:
+	    				break;
+	    				
 	    			default:
 	    				throw new Exception("Button with index not setup here: " + index);
     			}
@@ -12,6 +12,8 @@ import com.gamesbykevin.androidframework.resources.Font;
 import com.gamesbykevin.androidframework.resources.Images;
 import com.gamesbykevin.androidframework.screen.Screen;
 import com.gamesbykevin.flood.assets.Assets;
+import com.gamesbykevin.flood.metrics.Metrics;
+import com.gamesbykevin.flood.metrics.MetricsOverlay;
 import com.gamesbykevin.flood.panel.GamePanel;
 
 import java.util.HashMap;
@@ -45,6 +47,9 @@ public final class ScreenManager implements Screen, Disposable
     //the object representing the button text
     private Paint paintButton;
     
+    //draws the timings on top of the screens
+    private MetricsOverlay overlay;
+    
     /**
      * The x-coordinate where we want the logo to be displayed
      */
@@ -247,6 +252,35 @@ public final class ScreenManager implements Screen, Disposable
     	{
         	//assign the state
 	        this.state = state;
+	        
+	        //the new screen has to be rendered
+	        getPanel().wake();
+    	}
+    }
+    
+    /**
+     * Is the current screen idle?<br>
+     * An idle screen only changes on input or a state change, so there is no need to update or render it every frame
+     * @return true = yes, false = no
+     */
+    public boolean isIdle()
+    {
+    	switch (getState())
+    	{
+	    	case Ready:
+	    		return ((MenuScreen)getScreen(getState())).isIdle();
+	    		
+	    	case Running:
+	    		return (getScreenGame().getGame() != null && getScreenGame().getGame().isIdle());
+	    		
+	    	case GameOver:
+	    		return getScreenGameover().isIdle();
+	    		
+	    	case Paused:
+	    	case Options:
+	    	case Exit:
+	    	default:
+	    		return true;
     	}
     }
     
@@ -320,6 +354,15 @@ public final class ScreenManager implements Screen, Disposable
                 default:
                     throw new Exception("Undefined state " + state.toString());
             }
+            
+            //draw the timings on top of everything
+            if (Metrics.hasOverlay())
+            {
+            	if (overlay == null)
+            		overlay = new MetricsOverlay();
+            	
+            	overlay.render(canvas, GamePanel.WIDTH);
+            }
         }
     }
     
@@ -0,0 +1,60 @@
+package com.gamesbykevin.flood.solver;
+
+/**
+ * The result of solving a board
+ */
+public final class Solution 
+{
+	//the colors chosen in order to flood the board
+	private final int[] moves;
+	
+	//is this the shortest possible solution
+	private final boolean optimal;
+	
+	//the lowest number of moves that could solve the board
+	private final int lowerBound;
+	
+	protected Solution(final int[] moves, final boolean optimal, final int lowerBound)
+	{
+		this.moves = moves;
+		this.optimal = optimal;
+		this.lowerBound = (optimal) ? moves.length : lowerBound;
+	}
+	
+	/**
+	 * Get the number of moves
+	 * @return The number of moves needed to flood the board with this solution
+	 */
+	public int getMoves()
+	{
+		return this.moves.length;
+	}
+	
+	/**
+	 * Get the move
+	 * @param index The position in the solution
+	 * @return The color index to flood with at the specified position
+	 */
+	public int getMove(final int index)
+	{
+		return this.moves[index];
+	}
+	
+	/**
+	 * Is the solution optimal?
+	 * @return true if no solution with fewer moves exists, false if this is the best solution found within the work budget
+	 */
+	public boolean isOptimal()
+	{
+		return this.optimal;
+	}
+	
+	/**
+	 * Get the lower bound
+	 * @return The number of moves we proved at least are required to flood the board
+	 */
+	public int getLowerBound()
+	{
+		return this.lowerBound;
+	}
+}
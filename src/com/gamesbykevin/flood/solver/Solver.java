@@ -0,0 +1,494 @@
+package com.gamesbykevin.flood.solver;
+
+import com.gamesbykevin.flood.engine.FloodEngine;
+import com.gamesbykevin.flood.engine.RegionGraph;
+
+/**
+ * The solver will find the least number of moves needed to flood a board.<br>
+ * We search the graph of regions of the board, where each state is the set of flooded regions.
+ * We first find an upper bound by flooding greedily, then search for a shorter solution with IDA*
+ * using the remaining number of colors and the distance of the furthest region as admissible heuristics.
+ * If the search does not complete within the work budget, the best solution found is returned.
+ * The budget counts the regions visited rather than the time spent, so the same board always gets the same solution
+ * no matter how fast the device is.
+ */
+public final class Solver
+{
+	/**
+	 * The default amount of work we allow to search for the optimal solution, as the number of regions visited.<br>
+	 * This is about 100 milliseconds on a desktop
+	 */
+	public static final long DEFAULT_WORK_BUDGET = 2000000L;
+
+	//the result of a search when the solution is found
+	private static final int FOUND = -1;
+
+	//the most regions we visit during a search
+	private final long budget;
+
+	//the total number of regions and colors
+	private int regions, colors;
+
+	//the number of longs needed to store the flooded regions
+	private int words;
+
+	//the regions of the board
+	private RegionGraph graph;
+
+	//the flooded regions for each depth of the search
+	private long[][] states;
+
+	//the color chosen at each depth of the search
+	private int[] path;
+
+	//the best solution found
+	private int[] best;
+
+	//the number of squares absorbed, the number of regions in the frontier, and the remaining regions for each color at each depth
+	private int[][] gain, frontier, remaining;
+
+	//the order of the colors we check at each depth
+	private int[][] order;
+
+	//scratch arrays to measure the distance between regions
+	private int[] distance, queue;
+
+	//scratch array to mark the regions we visited
+	private int[] visited;
+
+	//the current visit mark
+	private int mark;
+
+	//the number of regions visited during the search
+	private long work;
+
+	//did we run out of work
+	private boolean expired;
+
+	//the number of nodes expanded
+	private long nodes;
+
+	/**
+	 * Create a solver with the default work budget
+	 */
+	public Solver()
+	{
+		this(DEFAULT_WORK_BUDGET);
+	}
+
+	/**
+	 * Create a solver
+	 * @param budget The amount of work we allow to search for the optimal solution, as the number of regions visited
+	 */
+	public Solver(final long budget)
+	{
+		this.budget = budget;
+	}
+
+	/**
+	 * Solve the board from the current flooded area.
+	 * @param graph The regions of the board
+	 * @param flood The flood engine containing the regions flooded so far
+	 * @param colors The number of colors on the board
+	 * @return The best solution found within the work budget
+	 */
+	public Solution solve(final RegionGraph graph, final FloodEngine flood, final int colors)
+	{
+		//start counting the work
+		this.work = 0;
+		this.expired = false;
+		this.nodes = 0;
+
+		this.graph = graph;
+		this.regions = graph.getRegions();
+		this.colors = colors;
+		this.words = (regions + 63) >>> 6;
+
+		//only create new scratch arrays if we need more room
+		if (distance == null || distance.length < regions)
+		{
+			this.distance = new int[regions];
+			this.queue = new int[regions];
+			this.visited = new int[regions];
+			this.mark = 0;
+		}
+
+		//the flooded regions at the start
+		final long[] start = new long[words];
+
+		for (int region = 0; region < regions; region++)
+		{
+			if (flood.isFlooded(region))
+				set(start, region);
+		}
+
+		//the greedy solution is our upper bound
+		this.best = greedy(start);
+
+		//the states for each depth of the search, we never search deeper than the best solution
+		this.states = new long[best.length + 1][words];
+		this.path = new int[best.length];
+		this.gain = new int[best.length + 1][colors];
+		this.frontier = new int[best.length + 1][colors];
+		this.remaining = new int[best.length + 1][colors];
+		this.order = new int[best.length + 1][colors];
+
+		//copy the start state
+		System.arraycopy(start, 0, states[0], 0, words);
+
+		//the lowest number of moves possible
+		int bound = heuristic(0);
+
+		//continue to search until we have proven the best solution or run out of work
+		while (bound < best.length)
+		{
+			final int result = search(0, bound);
+
+			//we found a solution with the current bound, it is optimal
+			if (result == FOUND)
+			{
+				//store the solution
+				best = new int[bound];
+				System.arraycopy(path, 0, best, 0, bound);
+				return new Solution(best, true, bound);
+			}
+
+			//if we ran out of work, return the best solution found
+			if (expired)
+				return new Solution(best, false, bound);
+
+			//increase the bound
+			bound = result;
+		}
+
+		//there is no solution shorter than the greedy solution
+		return new Solution(best, true, best.length);
+	}
+
+	/**
+	 * Get the number of nodes.
+	 * @return The number of states expanded during the last search
+	 */
+	public long getNodes()
+	{
+		return this.nodes;
+	}
+
+	/**
+	 * Flood the board by choosing the color that removes a color from the board if possible, 
+	 * else the color that absorbs the most squares
+	 * @param start The flooded regions at the start
+	 * @return The colors chosen in order to flood the board
+	 */
+	private int[] greedy(final long[] start)
+	{
+		final long[] state = new long[words];
+		System.arraycopy(start, 0, state, 0, words);
+
+		final int[] gains = new int[colors];
+		final int[] counts = new int[colors];
+
+		//the number of regions not yet flooded for each color
+		final int[] left = new int[colors];
+
+		for (int region = 0; region < regions; region++)
+		{
+			if (!get(state, region))
+				left[graph.getColor(region)]++;
+		}
+
+		//the colors chosen, we can never need more moves than regions
+		int[] moves = new int[Math.max(regions, 1)];
+		int total = 0;
+
+		while (true)
+		{
+			//measure what each color would absorb
+			measure(state, gains, counts);
+
+			//pick the color that absorbs the most squares
+			int color = -1;
+
+			for (int index = 0; index < colors; index++)
+			{
+				//if every remaining region of the color can be absorbed, pick it
+				if (counts[index] > 0 && counts[index] == left[index])
+				{
+					color = index;
+					break;
+				}
+
+				if (gains[index] > 0 && (color < 0 || gains[index] > gains[color]))
+					color = index;
+			}
+
+			//if nothing can be absorbed, we are done
+			if (color < 0)
+				break;
+
+			//flood with the color
+			absorb(state, state, color);
+			left[color] -= counts[color];
+			moves[total++] = color;
+		}
+
+		//copy the result
+		final int[] result = new int[total];
+		System.arraycopy(moves, 0, result, 0, total);
+		return result;
+	}
+
+	/**
+	 * Search for a solution within the bound (IDA*)
+	 * @param depth The current depth
+	 * @param bound The maximum number of moves allowed
+	 * @return {@link #FOUND} if a solution is found, else the lowest number of moves needed that exceeded the bound
+	 */
+	private int search(final int depth, final int bound)
+	{
+		//each node visits every region to estimate the remaining moves
+		nodes++;
+		work += regions;
+
+		if (work > budget)
+			expired = true;
+
+		if (expired)
+			return Integer.MAX_VALUE;
+
+		//estimate the remaining moves
+		final int estimate = heuristic(depth);
+
+		//if everything is flooded we have a solution
+		if (estimate == 0)
+			return FOUND;
+
+		//if the estimate exceeds the bound, we can't continue
+		if (depth + estimate > bound)
+			return depth + estimate;
+
+		//measure what each color would absorb
+		measure(states[depth], gain[depth], frontier[depth]);
+
+		//the number of colors to check
+		int total = 0;
+
+		for (int color = 0; color < colors; color++)
+		{
+			//if the frontier contains every remaining region of this color, it is always best to flood it first
+			if (frontier[depth][color] > 0 && frontier[depth][color] == remaining[depth][color])
+			{
+				order[depth][0] = color;
+				total = 1;
+				break;
+			}
+
+			//only check colors that absorb something
+			if (gain[depth][color] > 0)
+				order[depth][total++] = color;
+		}
+
+		//check the colors that absorb the most squares first
+		for (int index = 1; index < total; index++)
+		{
+			final int color = order[depth][index];
+			int position = index - 1;
+
+			while (position >= 0 && gain[depth][order[depth][position]] < gain[depth][color])
+			{
+				order[depth][position + 1] = order[depth][position];
+				position--;
+			}
+
+			order[depth][position + 1] = color;
+		}
+
+		//the lowest number of moves that exceeded the bound
+		int minimum = Integer.MAX_VALUE;
+
+		for (int index = 0; index < total; index++)
+		{
+			final int color = order[depth][index];
+
+			//flood with the color
+			absorb(states[depth], states[depth + 1], color);
+			path[depth] = color;
+
+			final int result = search(depth + 1, bound);
+
+			if (result == FOUND)
+				return FOUND;
+
+			if (expired)
+				return Integer.MAX_VALUE;
+
+			if (result < minimum)
+				minimum = result;
+		}
+
+		return minimum;
+	}
+
+	/**
+	 * Estimate the remaining number of moves, this will never be more than the actual number of moves.<br>
+	 * Each move removes at most one color, and advances the flood by at most one region in every direction.
+	 * The remaining regions for each color are also stored for the specified depth.
+	 * @param depth The depth of the state we are checking
+	 * @return The estimated number of moves to flood every region
+	 */
+	private int heuristic(final int depth)
+	{
+		final long[] state = states[depth];
+		final int[] count = remaining[depth];
+
+		for (int color = 0; color < colors; color++)
+		{
+			count[color] = 0;
+		}
+
+		//the colors that are not flooded
+		int bits = 0;
+
+		//the start and end of the queue
+		int head = 0, tail = 0;
+
+		for (int region = 0; region < regions; region++)
+		{
+			if (get(state, region))
+			{
+				//every flooded region is a start for the distance
+				distance[region] = 0;
+				queue[tail++] = region;
+			}
+			else
+			{
+				distance[region] = -1;
+				bits |= (1 << graph.getColor(region));
+				count[graph.getColor(region)]++;
+			}
+		}
+
+		//everything is flooded
+		if (bits == 0)
+			return 0;
+
+		//the furthest distance from the flooded regions
+		int furthest = 0;
+
+		while (head < tail)
+		{
+			final int region = queue[head++];
+
+			for (int position = graph.getEdgeStart(region); position < graph.getEdgeEnd(region); position++)
+			{
+				final int neighbor = graph.getEdge(position);
+
+				if (distance[neighbor] >= 0)
+					continue;
+
+				distance[neighbor] = distance[region] + 1;
+				queue[tail++] = neighbor;
+
+				if (distance[neighbor] > furthest)
+					furthest = distance[neighbor];
+			}
+		}
+
+		return Math.max(Integer.bitCount(bits), furthest);
+	}
+
+	/**
+	 * Measure the frontier, the regions that are not flooded but touch the flooded area
+	 * @param state The flooded regions
+	 * @param gains The number of squares each color would absorb
+	 * @param counts The number of regions each color would absorb
+	 */
+	private void measure(final long[] state, final int[] gains, final int[] counts)
+	{
+		for (int color = 0; color < colors; color++)
+		{
+			gains[color] = 0;
+			counts[color] = 0;
+		}
+
+		//new visit mark
+		mark++;
+
+		for (int word = 0; word < words; word++)
+		{
+			long bits = state[word];
+
+			while (bits != 0)
+			{
+				final int region = (word << 6) + Long.numberOfTrailingZeros(bits);
+				bits &= (bits - 1);
+
+				for (int position = graph.getEdgeStart(region); position < graph.getEdgeEnd(region); position++)
+				{
+					final int neighbor = graph.getEdge(position);
+
+					//skip flooded and already counted regions
+					if (visited[neighbor] == mark || get(state, neighbor))
+						continue;
+
+					visited[neighbor] = mark;
+					gains[graph.getColor(neighbor)] += graph.getSize(neighbor);
+					counts[graph.getColor(neighbor)]++;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Flood the regions in the frontier with the specified color
+	 * @param source The flooded regions
+	 * @param destination Where the flooded regions after the move are stored, this may be the same as the source
+	 * @param color The color we are flooding with
+	 */
+	private void absorb(final long[] source, final long[] destination, final int color)
+	{
+		if (source != destination)
+			System.arraycopy(source, 0, destination, 0, words);
+
+		for (int word = 0; word < words; word++)
+		{
+			//regions added during the move have no neighbors of the same color, so changing the source here is safe
+			long bits = source[word];
+
+			while (bits != 0)
+			{
+				final int region = (word << 6) + Long.numberOfTrailingZeros(bits);
+				bits &= (bits - 1);
+
+				for (int position = graph.getEdgeStart(region); position < graph.getEdgeEnd(region); position++)
+				{
+					final int neighbor = graph.getEdge(position);
+
+					if (graph.getColor(neighbor) == color)
+						set(destination, neighbor);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Is the region flooded?
+	 * @param state The flooded regions
+	 * @param region The region
+	 * @return true = yes, false = no
+	 */
+	private static boolean get(final long[] state, final int region)
+	{
+		return ((state[region >>> 6] & (1L << region)) != 0);
+	}
+
+	/**
+	 * Flag the region flooded
+	 * @param state The flooded regions
+	 * @param region The region
+	 */
+	private static void set(final long[] state, final int region)
+	{
+		state[region >>> 6] |= (1L << region);
+	}
+}
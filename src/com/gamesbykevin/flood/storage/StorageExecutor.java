@@ -0,0 +1,183 @@
+package com.gamesbykevin.flood.storage;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+import com.gamesbykevin.flood.metrics.Metrics;
+
+/**
+ * Writes the files of the storage on a background thread.<br>
+ * A save only queues a write, which runs after a short delay so repeated saves of the same file are merged
+ * into a single write. The game and ui threads never wait on the storage, except for {@link #flush()}
+ * which is called when the activity stops so nothing queued is lost.
+ * @author GOD
+ */
+public final class StorageExecutor
+{
+    /**
+     * Writes a file, the writer takes a copy of what to write when it is queued
+     */
+    public interface Writer
+    {
+        /**
+         * Write the file
+         * @return The number of bytes written
+         * @throws IOException if the file can't be written
+         */
+        public int write() throws IOException;
+    }
+    
+    /**
+     * How long we wait before writing, saves of the same file made meanwhile are merged (milliseconds)
+     */
+    public static final long WRITE_DELAY = 500L;
+    
+    //the name of the worker thread
+    private static final String THREAD_NAME = "StorageWriter";
+    
+    //the writes waiting for their delay, by writer
+    private static final Map<Writer, ScheduledFuture<?>> PENDING = new IdentityHashMap<Writer, ScheduledFuture<?>>();
+    
+    //the worker writing the files, only a single thread so the writes of a file are in order
+    private static ScheduledExecutorService executor;
+    
+    private StorageExecutor()
+    {
+        //no instances, everything is static
+    }
+    
+    /**
+     * Queue a write of the file.<br>
+     * If a write of the same writer is already waiting, the save is merged into it
+     * @param writer Writes the file
+     */
+    public static synchronized void save(final Writer writer)
+    {
+        if (PENDING.containsKey(writer))
+        {
+            Metrics.STORAGE_COALESCED.incrementAndGet();
+            return;
+        }
+        
+        if (executor == null)
+        {
+            executor = Executors.newSingleThreadScheduledExecutor(new ThreadFactory()
+            {
+                @Override
+                public Thread newThread(final Runnable runnable)
+                {
+                    final Thread thread = new Thread(runnable, THREAD_NAME);
+                    
+                    //never keep the app alive, and don't compete with the game thread
+                    thread.setDaemon(true);
+                    thread.setPriority(Thread.MIN_PRIORITY);
+                    return thread;
+                }
+            });
+        }
+        
+        Metrics.STORAGE_QUEUED.incrementAndGet();
+        PENDING.put(writer, executor.schedule(createTask(writer), WRITE_DELAY, TimeUnit.MILLISECONDS));
+    }
+    
+    /**
+     * Write every file that is waiting now, and wait until every write is done
+     */
+    public static void flush()
+    {
+        final long start = System.nanoTime();
+        final ScheduledExecutorService executor;
+        final List<Writer> writers = new ArrayList<Writer>();
+        
+        synchronized (StorageExecutor.class)
+        {
+            executor = StorageExecutor.executor;
+            
+            if (executor == null)
+                return;
+            
+            //take every write still waiting for the delay
+            for (Map.Entry<Writer, ScheduledFuture<?>> entry : PENDING.entrySet())
+            {
+                if (entry.getValue().cancel(false))
+                    writers.add(entry.getKey());
+            }
+            
+            for (Writer writer : writers)
+            {
+                PENDING.remove(writer);
+            }
+        }
+        
+        try
+        {
+            //write them now, the worker is a single thread so this also waits for a write already running
+            for (Writer writer : writers)
+            {
+                executor.execute(createTask(writer));
+            }
+            
+            executor.submit(new Runnable()
+            {
+                @Override
+                public void run()
+                {
+                    //nothing to do, only waits for the writes before it
+                }
+            }).get();
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+        }
+        catch (ExecutionException e)
+        {
+            e.printStackTrace();
+        }
+        
+        Metrics.STORAGE_FLUSH.record(System.nanoTime() - start);
+    }
+    
+    /**
+     * Create the task writing the file
+     * @param writer Writes the file
+     * @return The task
+     */
+    private static Runnable createTask(final Writer writer)
+    {
+        return new Runnable()
+        {
+            @Override
+            public void run()
+            {
+                //a save made while writing queues a new write
+                synchronized (StorageExecutor.class)
+                {
+                    PENDING.remove(writer);
+                }
+                
+                final long start = System.nanoTime();
+                
+                try
+                {
+                    Metrics.STORAGE_BYTES.addAndGet(writer.write());
+                }
+                catch (IOException e)
+                {
+                    e.printStackTrace();
+                }
+                
+                Metrics.STORAGE_WRITE.record(System.nanoTime() - start);
+            }
+        };
+    }
+}
@@ -0,0 +1,676 @@
+package com.gamesbykevin.flood.storage.journal;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.zip.CRC32;
+
+/**
+ * An append only file of fixed size records.<br>
+ * Each record is a key and a fixed number of int values, followed by a checksum.
+ * Writing a value appends a single record, the last record of a key is its value.
+ * When a record at the end of the file is torn (the app stopped while writing) its checksum fails,
+ * the file is cut back to the last good record and every earlier value is kept.
+ * Once enough records are appended the file is compacted on a background thread to a single record per key.
+ * <p>
+ * The keys are dense, from 0 to the capacity, and the live values are kept in a primitive array.
+ * The header stores the number of fields and the capacity, a journal is only opened with the same layout,
+ * so an owner whose keys depend on the capacity can copy the records of an older layout with {@link #readCapacity(File)}.
+ * Nothing here depends on android.
+ * @author GOD
+ */
+public final class Journal
+{
+    /**
+     * The first bytes of every journal
+     */
+    public static final int MAGIC = 0x464A4E4C;
+
+    /**
+     * The version of the file layout
+     */
+    public static final int VERSION = 2;
+
+    //the size of the header (magic, version, fields, capacity)
+    private static final int HEADER_SIZE = 16;
+
+    /**
+     * The fewest appended records before we compact
+     */
+    public static final int COMPACT_MIN_RECORDS = 64;
+
+    //the name of the compaction thread
+    private static final String THREAD_NAME = "JournalCompactor";
+
+    //the file of the journal
+    private final File file;
+
+    //the number of values of each record
+    private final int fields;
+
+    //the size of a record (key, values, checksum)
+    private final int recordSize;
+
+    //the live value of each key
+    private final int[] values;
+
+    //the keys that have a value
+    private final BitSet present;
+
+    //re-used to write a record
+    private final byte[] buffer;
+
+    //re-used to checksum a record
+    private final CRC32 crc = new CRC32();
+
+    //the open file we append to, null when closed
+    private RandomAccessFile output;
+
+    //the number of records appended since the file was compacted
+    private int appended = 0;
+
+    //is a compaction waiting or running
+    private boolean compacting = false;
+
+    //was the journal closed
+    private boolean closed = false;
+
+    //do we compact in the background
+    private boolean autoCompact = true;
+
+    //compacts the file in the background, created when first needed
+    private ExecutorService executor;
+
+    /**
+     * Create a journal, call {@link #open()} before use
+     * @param file The file of the journal
+     * @param capacity The number of keys, every key is from 0 to the capacity
+     * @param fields The number of values of each key
+     */
+    public Journal(final File file, final int capacity, final int fields)
+    {
+        this.file = file;
+        this.fields = fields;
+        this.recordSize = 4 + (fields * 4) + 4;
+        this.values = new int[capacity * fields];
+        this.present = new BitSet(capacity);
+        this.buffer = new byte[recordSize];
+    }
+
+    /**
+     * Assign background compaction, call before {@link #open()}.<br>
+     * The owner of a journal that keeps its own snapshot compacts with {@link #truncate()} instead
+     * @param autoCompact true to compact in the background once enough records are appended, false otherwise
+     */
+    public synchronized void setAutoCompact(final boolean autoCompact)
+    {
+        this.autoCompact = autoCompact;
+    }
+
+    /**
+     * Open the journal and read every record.<br>
+     * A torn record at the end of the file is removed
+     * @throws IOException if the file can't be read, or it is not a journal with the same number of fields and capacity
+     */
+    public synchronized void open() throws IOException
+    {
+        if (output != null)
+            return;
+
+        closed = false;
+
+        //the number of bytes that are good
+        int valid = HEADER_SIZE;
+
+        //the number of records read
+        int records = 0;
+
+        if (file.exists() && file.length() > 0)
+        {
+            final byte[] data = readFully(file);
+
+            //the header has to match, we never replace a file we don't understand
+            if (data.length < HEADER_SIZE || readInt(data, 0) != MAGIC)
+                throw new IOException("Not a journal: " + file);
+            if (readInt(data, 4) != VERSION || readInt(data, 8) != fields)
+                throw new IOException("Unsupported journal version " + readInt(data, 4) + " with " + readInt(data, 8) + " fields: " + file);
+            if (readInt(data, 12) != getCapacity())
+                throw new IOException("Journal capacity " + readInt(data, 12) + " is not " + getCapacity() + ": " + file);
+
+            //read each record until the end or a torn record
+            while (valid + recordSize <= data.length && isValid(data, valid))
+            {
+                apply(data, valid);
+                valid += recordSize;
+                records++;
+            }
+        }
+
+        output = new RandomAccessFile(file, "rw");
+
+        if (output.length() < HEADER_SIZE)
+        {
+            //a new journal
+            writeHeader(output);
+            output.getFD().sync();
+        }
+        else if (output.length() != valid)
+        {
+            //remove the torn record
+            output.setLength(valid);
+            output.getFD().sync();
+        }
+
+        output.seek(valid);
+
+        //compact if the journal has grown
+        appended = Math.max(0, records - present.cardinality());
+        checkCompact();
+    }
+
+    /**
+     * Does the key have a value?
+     * @param key The key
+     * @return true if a record of the key was written, false otherwise
+     */
+    public synchronized boolean has(final int key)
+    {
+        return present.get(key);
+    }
+
+    /**
+     * Get a value
+     * @param key The key
+     * @param field The index of the value
+     * @return The value, 0 if the key has no value
+     */
+    public synchronized int get(final int key, final int field)
+    {
+        return values[(key * fields) + field];
+    }
+
+    /**
+     * Get the record count
+     * @return The number of records in the file
+     */
+    public synchronized int getRecordCount()
+    {
+        try
+        {
+            return (output == null) ? 0 : (int)((output.getFilePointer() - HEADER_SIZE) / recordSize);
+        }
+        catch (IOException e)
+        {
+            return 0;
+        }
+    }
+
+    /**
+     * Remove every record, once the owner has saved the live values elsewhere
+     * @throws IOException if the file can't be written
+     */
+    public synchronized void truncate() throws IOException
+    {
+        if (output == null)
+            throw new IOException("Journal is not open: " + file);
+
+        output.setLength(HEADER_SIZE);
+        output.seek(HEADER_SIZE);
+        output.getFD().sync();
+
+        present.clear();
+        Arrays.fill(values, 0);
+        appended = 0;
+    }
+
+    /**
+     * Get the record size
+     * @return The number of bytes appended for each record
+     */
+    public int getRecordSize()
+    {
+        return this.recordSize;
+    }
+
+    /**
+     * Get the capacity
+     * @return The number of keys
+     */
+    public int getCapacity()
+    {
+        return (values.length / fields);
+    }
+
+    /**
+     * Write the values of a key, a single record is appended and synced to the file.<br>
+     * Nothing is written if the values are the same as the live values
+     * @param key The key
+     * @param values The values, one for each field
+     * @throws IOException if the record can't be written
+     */
+    public synchronized void write(final int key, final int... values) throws IOException
+    {
+        if (append(key, values))
+            sync();
+    }
+
+    /**
+     * Append the values of a key without syncing, call {@link #sync()} once every record is appended.<br>
+     * Nothing is written if the values are the same as the live values
+     * @param key The key
+     * @param values The values, one for each field
+     * @return true if a record was appended, false if the values did not change
+     * @throws IOException if the record can't be written
+     */
+    public synchronized boolean append(final int key, final int... values) throws IOException
+    {
+        if (output == null)
+            throw new IOException("Journal is not open: " + file);
+        if (key < 0 || key >= getCapacity())
+            throw new IllegalArgumentException("Key " + key + " is not from 0 to " + getCapacity());
+        if (values.length != fields)
+            throw new IllegalArgumentException("Expected " + fields + " values, found " + values.length);
+
+        //nothing changed
+        if (present.get(key) && isSame(key, values))
+            return false;
+
+        //create the record
+        writeInt(buffer, 0, key);
+
+        for (int field = 0; field < fields; field++)
+        {
+            writeInt(buffer, 4 + (field * 4), values[field]);
+        }
+
+        crc.reset();
+        crc.update(buffer, 0, recordSize - 4);
+        writeInt(buffer, recordSize - 4, (int)crc.getValue());
+
+        //append the record
+        output.write(buffer, 0, recordSize);
+
+        //the record is written, update the live values
+        apply(buffer, 0);
+        appended++;
+
+        checkCompact();
+
+        return true;
+    }
+
+    /**
+     * Make sure every appended record is on the storage device
+     * @throws IOException if the file can't be synced
+     */
+    public synchronized void sync() throws IOException
+    {
+        if (output == null)
+            throw new IOException("Journal is not open: " + file);
+
+        output.getFD().sync();
+    }
+
+    /**
+     * Are the values the same as the live values of the key?
+     * @param key The key
+     * @param values The values
+     * @return true if every value is the same, false otherwise
+     */
+    private boolean isSame(final int key, final int[] values)
+    {
+        for (int field = 0; field < fields; field++)
+        {
+            if (this.values[(key * fields) + field] != values[field])
+                return false;
+        }
+
+        return true;
+    }
+
+    /**
+     * Compact the file in the background if enough records were appended
+     */
+    private void checkCompact()
+    {
+        if (!autoCompact || compacting || appended < Math.max(COMPACT_MIN_RECORDS, present.cardinality()))
+            return;
+
+        compacting = true;
+
+        if (executor == null)
+        {
+            executor = Executors.newSingleThreadExecutor(new ThreadFactory()
+            {
+                @Override
+                public Thread newThread(final Runnable runnable)
+                {
+                    final Thread thread = new Thread(runnable, THREAD_NAME);
+
+                    //never keep the app alive
+                    thread.setDaemon(true);
+                    thread.setPriority(Thread.MIN_PRIORITY);
+                    return thread;
+                }
+            });
+        }
+
+        executor.execute(new Runnable()
+        {
+            @Override
+            public void run()
+            {
+                try
+                {
+                    compact();
+                }
+                catch (IOException e)
+                {
+                    e.printStackTrace();
+                }
+                finally
+                {
+                    synchronized (Journal.this)
+                    {
+                        compacting = false;
+                    }
+                }
+            }
+        });
+    }
+
+    /**
+     * Rewrite the file with a single record for each key.<br>
+     * The records are written to a new file without holding the lock, records appended meanwhile are copied over
+     * before the new file replaces the journal
+     * @throws IOException if the new file can't be written, the journal is then left as it is
+     */
+    public void compact() throws IOException
+    {
+        final byte[] snapshot;
+        final long offset;
+
+        //copy the live records
+        synchronized (this)
+        {
+            if (output == null)
+                return;
+
+            snapshot = new byte[HEADER_SIZE + (present.cardinality() * recordSize)];
+
+            writeInt(snapshot, 0, MAGIC);
+            writeInt(snapshot, 4, VERSION);
+            writeInt(snapshot, 8, fields);
+            writeInt(snapshot, 12, getCapacity());
+
+            int index = HEADER_SIZE;
+
+            for (int key = present.nextSetBit(0); key >= 0; key = present.nextSetBit(key + 1))
+            {
+                writeInt(snapshot, index, key);
+
+                for (int field = 0; field < fields; field++)
+                {
+                    writeInt(snapshot, index + 4 + (field * 4), values[(key * fields) + field]);
+                }
+
+                crc.reset();
+                crc.update(snapshot, index, recordSize - 4);
+                writeInt(snapshot, index + recordSize - 4, (int)crc.getValue());
+
+                index += recordSize;
+            }
+
+            offset = output.getFilePointer();
+            appended = 0;
+        }
+
+        //write the new file
+        final File tmp = new File(file.getPath() + ".tmp");
+        final RandomAccessFile compacted = new RandomAccessFile(tmp, "rw");
+
+        try
+        {
+            compacted.setLength(0);
+            compacted.write(snapshot);
+
+            synchronized (this)
+            {
+                if (output == null)
+                    return;
+
+                //copy the records appended while we were writing
+                final long end = output.getFilePointer();
+
+                if (end > offset)
+                {
+                    final byte[] tail = new byte[(int)(end - offset)];
+
+                    output.seek(offset);
+                    output.readFully(tail);
+                    compacted.write(tail);
+                }
+
+                compacted.getFD().sync();
+                compacted.close();
+
+                //replace the journal
+                output.close();
+                output = null;
+
+                if (!tmp.renameTo(file))
+                    throw new IOException("Unable to replace " + file);
+
+                output = new RandomAccessFile(file, "rw");
+                output.seek(output.length());
+            }
+        }
+        finally
+        {
+            compacted.close();
+
+            if (tmp.exists())
+                tmp.delete();
+
+            synchronized (this)
+            {
+                //never leave the journal closed if replacing it failed
+                if (output == null && !closed && file.exists())
+                {
+                    output = new RandomAccessFile(file, "rw");
+                    output.seek(output.length());
+                }
+            }
+        }
+    }
+
+    /**
+     * Close the journal, a compaction that is waiting is dropped
+     * @throws IOException if the file can't be closed
+     */
+    public void close() throws IOException
+    {
+        final ExecutorService executor;
+
+        synchronized (this)
+        {
+            executor = this.executor;
+            this.executor = null;
+            closed = true;
+        }
+
+        if (executor != null)
+            executor.shutdownNow();
+
+        synchronized (this)
+        {
+            if (output != null)
+            {
+                output.close();
+                output = null;
+            }
+        }
+    }
+
+    /**
+     * Is the record not torn?
+     * @param data The bytes of the file
+     * @param index Where the record starts
+     * @return true if the checksum of the record matches, false otherwise
+     */
+    private boolean isValid(final byte[] data, final int index)
+    {
+        crc.reset();
+        crc.update(data, index, recordSize - 4);
+
+        return (readInt(data, index + recordSize - 4) == (int)crc.getValue());
+    }
+
+    /**
+     * Apply the record to the live values
+     * @param data The bytes containing the record
+     * @param index Where the record starts
+     */
+    private void apply(final byte[] data, final int index)
+    {
+        final int key = readInt(data, index);
+
+        //ignore keys we no longer have room for
+        if (key < 0 || key >= getCapacity())
+            return;
+
+        for (int field = 0; field < fields; field++)
+        {
+            values[(key * fields) + field] = readInt(data, index + 4 + (field * 4));
+        }
+
+        present.set(key);
+    }
+
+    /**
+     * Write the header of a new journal
+     * @param output The file
+     * @throws IOException if the header can't be written
+     */
+    private void writeHeader(final RandomAccessFile output) throws IOException
+    {
+        output.setLength(0);
+        output.writeInt(MAGIC);
+        output.writeInt(VERSION);
+        output.writeInt(fields);
+        output.writeInt(getCapacity());
+    }
+
+    /**
+     * Read the capacity a journal was written with, without opening it
+     * @param file The file of the journal
+     * @return The number of keys of the journal, -1 if there is no journal
+     * @throws IOException if the file can't be read, or it is not a journal of this version
+     */
+    public static int readCapacity(final File file) throws IOException
+    {
+        if (!file.exists() || file.length() == 0)
+            return -1;
+
+        final byte[] header = new byte[HEADER_SIZE];
+        final FileInputStream input = new FileInputStream(file);
+
+        try
+        {
+            int count = 0;
+
+            while (count < header.length)
+            {
+                final int read = input.read(header, count, header.length - count);
+
+                if (read < 0)
+                    throw new IOException("Not a journal: " + file);
+
+                count += read;
+            }
+        }
+        finally
+        {
+            input.close();
+        }
+
+        if (readInt(header, 0) != MAGIC)
+            throw new IOException("Not a journal: " + file);
+        if (readInt(header, 4) != VERSION)
+            throw new IOException("Unsupported journal version " + readInt(header, 4) + ": " + file);
+
+        return readInt(header, 12);
+    }
+
+    /**
+     * Read the whole file with a single buffered read
+     * @param file The file
+     * @return The bytes of the file
+     * @throws IOException if the file can't be read
+     */
+    private static byte[] readFully(final File file) throws IOException
+    {
+        final byte[] data = new byte[(int)file.length()];
+        final FileInputStream input = new FileInputStream(file);
+
+        try
+        {
+            int count = 0;
+
+            while (count < data.length)
+            {
+                final int read = input.read(data, count, data.length - count);
+
+                if (read < 0)
+                    break;
+
+                count += read;
+            }
+
+            //the file may have been shorter than expected
+            if (count < data.length)
+            {
+                final byte[] tmp = new byte[count];
+                System.arraycopy(data, 0, tmp, 0, count);
+                return tmp;
+            }
+
+            return data;
+        }
+        finally
+        {
+            input.close();
+        }
+    }
+
+    /**
+     * Read an int, most significant byte first
+     * @param data The bytes
+     * @param index Where the int starts
+     * @return The int
+     */
+    private static int readInt(final byte[] data, final int index)
+    {
+        return ((data[index] & 0xff) << 24) | ((data[index + 1] & 0xff) << 16) | ((data[index + 2] & 0xff) << 8) | (data[index + 3] & 0xff);
+    }
+
+    /**
+     * Write an int, most significant byte first
+     * @param data The bytes
+     * @param index Where the int starts
+     * @param value The int
+     */
+    private static void writeInt(final byte[] data, final int index, final int value)
+    {
+        data[index] = (byte)(value >>> 24);
+        data[index + 1] = (byte)(value >>> 16);
+        data[index + 2] = (byte)(value >>> 8);
+        data[index + 3] = (byte)value;
+    }
+}
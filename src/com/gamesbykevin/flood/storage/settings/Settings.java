@@ -3,10 +3,20 @@ package com.gamesbykevin.flood.storage.settings;
 import android.app.Activity;
 import com.gamesbykevin.androidframework.io.storage.Internal;
 import com.gamesbykevin.androidframework.resources.Audio;
+import com.gamesbykevin.flood.metrics.Metrics;
 import com.gamesbykevin.flood.screen.OptionsScreen;
+import com.gamesbykevin.flood.storage.StorageExecutor;
+import com.gamesbykevin.flood.storage.journal.Journal;
+
+import java.io.File;
+import java.io.IOException;
 
 /**
- * Save the settings to the internal storage
+ * Save the settings to the internal storage.<br>
+ * Each setting is a key of a {@link Journal}, so changing an option appends a single record.
+ * The records are written by the {@link StorageExecutor}, toggling an option many times in a row is a single write.
+ * The settings saved as text by earlier versions are copied to the journal the first time.
+ * Without a journal the settings are saved as text, like earlier versions
  * @author GOD
  */
 public final class Settings extends Internal
@@ -19,6 +29,33 @@ public final class Settings extends Internal
      */
     private static final String SEPARATOR = ";";
     
+    /**
+     * The name of the journal file
+     */
+    public static final String JOURNAL_NAME = "Settings.journal";
+    
+    //where every change is written, null if the journal could not be opened or written
+    private volatile Journal journal;
+    
+    //the file of the journal
+    private final File journalFile;
+    
+    //the index of each option when last saved, waiting to be written
+    private int[] pending;
+    
+    //the index of each option being written, only used by the storage thread
+    private int[] writing;
+    
+    //writes the settings on the storage thread
+    private final StorageExecutor.Writer writer = new StorageExecutor.Writer()
+    {
+        @Override
+        public int write() throws IOException
+        {
+            return writePending();
+        }
+    };
+    
     public Settings(final OptionsScreen screen, final Activity activity)
     {
         super("Settings", activity);
@@ -26,6 +63,111 @@ public final class Settings extends Internal
         //store our screen reference object
         this.screen = screen;
         
+        //the journal of the settings, a key for each option
+        final File file = new File(activity.getFilesDir(), JOURNAL_NAME);
+        this.journalFile = file;
+        
+        this.pending = new int[screen.getButtons().size()];
+        this.writing = new int[pending.length];
+        
+        try
+        {
+            //a journal written with a different number of options is copied to a journal with a key for each option
+            final int capacity = Journal.readCapacity(file);
+            
+            if (capacity > 0 && capacity != pending.length)
+                migrateJournal(file, capacity);
+            
+            journal = new Journal(file, pending.length, 1);
+            journal.open();
+        }
+        catch (IOException e)
+        {
+            //never replace a file we can't read, the settings are saved as text instead
+            e.printStackTrace();
+            journal = null;
+        }
+        
+        //the journal file is created when opened, so only a journal with records has the settings
+        if (journal != null && journal.getRecordCount() > 0)
+        {
+            //restore each setting in the journal
+            for (int key = 0; key < journal.getCapacity(); key++)
+            {
+            	if (journal.has(key))
+            		restore(key, journal.get(key, 0));
+            }
+        }
+        else
+        {
+            //load the settings saved as text by earlier versions
+            loadLegacy();
+            
+            //and copy them to the new journal
+            copyLegacy();
+        }
+        
+        //make sure the text in the buttons are aligned
+        screen.reset();
+    }
+    
+    /**
+     * Copy the settings of a journal written with a different number of options.<br>
+     * The new journal is written beside the journal and replaces it once complete
+     * @param file The file of the journal
+     * @param capacity The number of options the journal was written with
+     * @throws IOException if the journal can't be read, or the new journal can't be written
+     */
+    private void migrateJournal(final File file, final int capacity) throws IOException
+    {
+        final Journal previous = new Journal(file, capacity, 1);
+        
+        try
+        {
+            previous.open();
+            
+            //restore each option we still have
+            for (int key = 0; key < Math.min(capacity, pending.length); key++)
+            {
+            	if (previous.has(key))
+            		restore(key, previous.get(key, 0));
+            }
+        }
+        finally
+        {
+            previous.close();
+        }
+        
+        final File tmp = new File(file.getPath() + ".tmp");
+        tmp.delete();
+        
+        final Journal copy = new Journal(tmp, pending.length, 1);
+        
+        try
+        {
+            copy.open();
+            
+            for (int key = 0; key < pending.length; key++)
+            {
+            	copy.append(key, screen.getButtons().get(key).getIndex());
+            }
+            
+            copy.sync();
+        }
+        finally
+        {
+            copy.close();
+        }
+        
+        if (!tmp.renameTo(file))
+            throw new IOException("Unable to replace " + file);
+    }
+    
+    /**
+     * Load the settings saved as text in the internal storage
+     */
+    private void loadLegacy()
+    {
         //if content exists load it
         if (super.getContent().toString().trim().length() > 0)
         {
@@ -36,15 +178,8 @@ public final class Settings extends Internal
 
                 for (int key = 0; key < data.length; key++)
                 {
-                	//get the index value in this array element
-                	int index = Integer.parseInt(data[key]);
-                	
                 	//restore settings
-                	screen.setIndex(key, index);
-                	
-                	//if the sound option, we need to flag the audio enabled/disabled
-                	if (key == OptionsScreen.INDEX_BUTTON_SOUND)
-                		Audio.setAudioEnabled(index == 0);
+                	restore(key, Integer.parseInt(data[key]));
                 }
             }
             catch (Exception e)
@@ -52,45 +187,178 @@ public final class Settings extends Internal
                 e.printStackTrace();
             }
         }
+    }
+    
+    /**
+     * Append every setting to the journal and sync it, before the game can be stopped.<br>
+     * Until this succeeds the journal has no records, so the settings saved as text are loaded again on the next start
+     */
+    private void copyLegacy()
+    {
+        final Journal journal = this.journal;
         
-        //make sure the text in the buttons are aligned
-        screen.reset();
+        if (journal == null)
+            return;
+        
+        try
+        {
+            for (int key = 0; key < pending.length; key++)
+            {
+            	journal.append(key, screen.getButtons().get(key).getIndex());
+            }
+            
+            journal.sync();
+        }
+        catch (IOException e)
+        {
+            //stop using the journal, the settings are saved as text instead
+            e.printStackTrace();
+            closeJournal();
+            
+            //keep the journal aside, so the next start reads the settings written as text
+            journalFile.renameTo(new File(journalFile.getPath() + ".bad"));
+        }
+    }
+    
+    /**
+     * Restore a setting
+     * @param key The option
+     * @param index The index of the option
+     */
+    private void restore(final int key, final int index)
+    {
+    	//restore settings
+    	screen.setIndex(key, index);
+    	
+    	//if the sound option, we need to flag the audio enabled/disabled
+    	if (key == OptionsScreen.INDEX_BUTTON_SOUND)
+    		Audio.setAudioEnabled(index == 0);
+    	
+    	//the diagnostics are a runtime switch, so they also work in a release build
+    	if (key == OptionsScreen.INDEX_BUTTON_DIAGNOSTICS)
+    		Metrics.setDiagnostics(index == 1);
     }
     
     /**
-     * Save the settings to the internal storage
+     * Save the settings to the internal storage.<br>
+     * The settings are copied and queued, only the settings that changed are appended to the journal
      */
     @Override
     public void save()
     {
-        try
+        synchronized (this)
         {
-            //remove all existing content
-            super.getContent().delete(0, super.getContent().length());
-
-            //save every option we have in our options screen
-            for (int key = 0; key < screen.getButtons().size(); key++)
+            //copy every option we have in our options screen
+            for (int key = 0; key < pending.length; key++)
             {
-            	//add the data to our string builder
-            	super.getContent().append(screen.getButtons().get(key).getIndex());
-            	
-            	//if not at the last option add delimiter
-            	if (key < screen.getButtons().size() - 1)
-            		super.getContent().append(SEPARATOR);
+            	pending[key] = screen.getButtons().get(key).getIndex();
             }
-
-            //save data
-            super.save();
         }
-        catch (Exception e)
+        
+        StorageExecutor.save(writer);
+    }
+    
+    /**
+     * Append the settings that changed to the journal, called on the storage thread.<br>
+     * Without a journal every setting is written as text instead
+     * @return The number of bytes written
+     */
+    private int writePending()
+    {
+        synchronized (this)
+        {
+            System.arraycopy(pending, 0, writing, 0, pending.length);
+        }
+        
+        final Journal journal = this.journal;
+        
+        if (journal != null)
         {
-            e.printStackTrace();
+            try
+            {
+                int bytes = 0;
+                
+                for (int key = 0; key < writing.length; key++)
+                {
+                	if (journal.append(key, writing[key]))
+                		bytes += journal.getRecordSize();
+                }
+                
+                //save data
+                if (bytes > 0)
+                	journal.sync();
+                
+                return bytes;
+            }
+            catch (IOException e)
+            {
+                //stop using the journal, this and every later save is written as text
+                e.printStackTrace();
+                closeJournal();
+                
+                //keep the journal aside, so the next start reads the settings written as text
+                journalFile.renameTo(new File(journalFile.getPath() + ".bad"));
+            }
+        }
+        
+        return writeLegacy();
+    }
+    
+    /**
+     * Write every setting as text to the internal storage, like earlier versions
+     * @return The number of characters written
+     */
+    private int writeLegacy()
+    {
+        //remove all existing content
+        super.getContent().delete(0, super.getContent().length());
+        
+        //save every option we have
+        for (int key = 0; key < writing.length; key++)
+        {
+        	//add the data to our string builder
+        	super.getContent().append(writing[key]);
+        	
+        	//if not at the last option add delimiter
+        	if (key < writing.length - 1)
+        		super.getContent().append(SEPARATOR);
+        }
+        
+        //save data
+        super.save();
+        
+        return super.getContent().length();
+    }
+    
+    /**
+     * Close the journal, if open
+     */
+    private void closeJournal()
+    {
+        final Journal journal = this.journal;
+        this.journal = null;
+        
+        if (journal != null)
+        {
+            try
+            {
+                journal.close();
+            }
+            catch (IOException e)
+            {
+                e.printStackTrace();
+            }
         }
     }
     
     @Override
     public void dispose()
     {
+        //write anything still queued, before the text content is released
+        StorageExecutor.flush();
+        
+        closeJournal();
+        
         super.dispose();
     }
 }
\ No newline at end of file
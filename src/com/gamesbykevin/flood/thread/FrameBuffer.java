@@ -0,0 +1,202 @@
+package com.gamesbykevin.flood.thread;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+
+import com.gamesbykevin.flood.panel.GamePanel;
+
+/**
+ * A triple buffered frame the size of the surface.<br>
+ * The game thread draws the next frame on the back buffer, scaled from the default dimensions to the surface,
+ * so text and sprites stay sharp. A complete frame is published as the ready buffer,
+ * and the render thread takes the ready buffer to present it.
+ * The lock is only held to swap the buffers, so a slow present never blocks the game thread.
+ * @author GOD
+ */
+public class FrameBuffer
+{
+    //the frame being drawn, only used by the game thread
+    private Bitmap back;
+
+    //the latest complete frame
+    private Bitmap ready;
+
+    //the frame being presented, only used by the render thread
+    private Bitmap presenting;
+
+    //canvas used to draw on the back buffer
+    private final Canvas canvas;
+
+    //the canvas state before it was scaled
+    private int savedState;
+
+    //the size of the frames
+    private int width, height;
+
+    //the number of frames published
+    private long sequence = 0;
+
+    //the sequence of the frame being presented
+    private long presentingSequence = -1;
+
+    //is the render thread drawing the frame being presented
+    private boolean inUse = false;
+
+    //have the buffers been recycled
+    private boolean recycled = false;
+
+    /**
+     * Create a new frame buffer
+     * @param width The width of a frame
+     * @param height The height of a frame
+     */
+    public FrameBuffer(final int width, final int height)
+    {
+        this.width = width;
+        this.height = height;
+        this.back = Bitmap.createBitmap(width, height, Bitmap.Config.ARGB_8888);
+        this.canvas = new Canvas(back);
+    }
+
+    /**
+     * Assign the size of the frames.<br>
+     * The back buffer is created at the new size when the next frame is started
+     * @param width The width of the surface
+     * @param height The height of the surface
+     */
+    public synchronized void setSize(final int width, final int height)
+    {
+        if (width < 1 || height < 1)
+            return;
+
+        this.width = width;
+        this.height = height;
+    }
+
+    /**
+     * Start the next frame.<br>
+     * This is only to be used by the thread publishing the frames
+     * @return The canvas used to draw the next frame, scaled so we draw at the default dimensions
+     */
+    public Canvas begin()
+    {
+        final int frameWidth, frameHeight;
+
+        synchronized (this)
+        {
+            frameWidth = this.width;
+            frameHeight = this.height;
+        }
+
+        //the back buffer is only used by this thread, so it can be replaced outside the lock
+        if (back == null || back.getWidth() != frameWidth || back.getHeight() != frameHeight)
+        {
+            if (back != null)
+                back.recycle();
+
+            back = Bitmap.createBitmap(frameWidth, frameHeight, Bitmap.Config.ARGB_8888);
+        }
+
+        canvas.setBitmap(back);
+
+        //scale to the surface size
+        savedState = canvas.save();
+        canvas.scale(frameWidth / (float)GamePanel.WIDTH, frameHeight / (float)GamePanel.HEIGHT);
+
+        return canvas;
+    }
+
+    /**
+     * Publish the back buffer, it becomes the ready frame
+     */
+    public void publish()
+    {
+        canvas.restoreToCount(savedState);
+
+        synchronized (this)
+        {
+            //swap the buffers, a ready frame that was not presented is drawn over
+            final Bitmap tmp = this.ready;
+            this.ready = this.back;
+            this.back = tmp;
+
+            //count the frame
+            this.sequence++;
+        }
+    }
+
+    /**
+     * Get the sequence
+     * @return The number of frames published, used to check for a new frame
+     */
+    public synchronized long getSequence()
+    {
+        return this.sequence;
+    }
+
+    /**
+     * Take the latest frame to present it.<br>
+     * This is only to be used by the render thread, and has to be followed by {@link #release()}
+     * @return The frame to present, null if there is none
+     */
+    public synchronized Bitmap acquire()
+    {
+        if (recycled)
+            return null;
+
+        //take the ready frame if it is newer
+        if (ready != null && presentingSequence != sequence)
+        {
+            final Bitmap tmp = this.presenting;
+            this.presenting = this.ready;
+            this.ready = tmp;
+            this.presentingSequence = sequence;
+        }
+
+        inUse = (presenting != null);
+
+        return presenting;
+    }
+
+    /**
+     * The frame taken with {@link #acquire()} is no longer drawn
+     */
+    public synchronized void release()
+    {
+        inUse = false;
+
+        //the buffers were recycled while we were presenting
+        if (recycled && presenting != null)
+        {
+            presenting.recycle();
+            presenting = null;
+        }
+    }
+
+    /**
+     * Recycle the buffers.<br>
+     * A frame being presented is recycled when it is released
+     */
+    public synchronized void recycle()
+    {
+        recycled = true;
+
+        if (back != null)
+        {
+            back.recycle();
+            back = null;
+        }
+
+        if (ready != null)
+        {
+            ready.recycle();
+            ready = null;
+        }
+
+        if (presenting != null && !inUse)
+        {
+            presenting.recycle();
+            presenting = null;
+        }
+    }
+}
@@ -1,8 +1,9 @@
 package com.gamesbykevin.flood.thread;
 
-import android.graphics.Canvas;
 import android.view.SurfaceHolder;
 import com.gamesbykevin.androidframework.anim.Animation;
+import com.gamesbykevin.flood.metrics.AllocationGuard;
+import com.gamesbykevin.flood.metrics.Metrics;
 import com.gamesbykevin.flood.panel.GamePanel;
 
 /**
@@ -16,20 +17,28 @@ public class MainThread extends Thread
      */
     public static final boolean DEBUG = false;
     
-    //the assigned frames per second for this game
+    //the assigned updates per second for this game
     public static final int FPS = 30;
     
+    /**
+     * The most updates we run to catch up, before we drop the time we are behind
+     */
+    public static final int MAX_UPDATES_PER_FRAME = 5;
+    
     //our game panel
     private final GamePanel panel;
     
-    //area where game play is rendered
-    private final SurfaceHolder holder;
+    //the frames we draw, presented by the render thread
+    private final FrameBuffer frames;
     
-    //is the thread running
-    private boolean running;
+    //the thread presenting the frames on the display vsync
+    private final RenderThread renderer;
     
-    //our canvas to render image(s)
-    private Canvas canvas;
+    //with the diagnostics enabled, fails every frame that creates objects after the warm up
+    private final AllocationGuard allocations = new AllocationGuard();
+    
+    //is the thread running, this is changed from other threads
+    private volatile boolean running;
     
     /**
      * When the game is terminated and recycling variables, <br>
@@ -37,128 +46,164 @@ public class MainThread extends Thread
      */
     public static final int COMPLETE_THREAD_ATTEMPTS = 1000;
     
-    //do we pause the update/render
-    private boolean pause = false;
+    //do we pause the update/render, this is changed from other threads
+    private volatile boolean pause = false;
+    
+    //has anything changed since the last update/render (input, state change, surface change)
+    private volatile boolean changed = true;
+    
+    //the condition the thread waits on while paused or idle
+    private final Object idle = new Object();
+    
+    /**
+     * The longest time (milliseconds) we wait while idle before we update/render again anyway
+     */
+    public static final long IDLE_TIMEOUT = 1000L;
     
     public MainThread(SurfaceHolder holder, GamePanel panel)
     {
     	//call parent constructor
         super();
         
-        //assign surface holder reference object
-        this.holder = holder;
-        
         //assign game panel reference object
         this.panel = panel;
+        
+        //create the frames at the default dimensions, until we know the size of the surface
+        this.frames = new FrameBuffer(GamePanel.WIDTH, GamePanel.HEIGHT);
+        
+        //create the thread presenting the frames
+        this.renderer = new RenderThread(holder, frames);
     }
     
     @Override
     public void run()
     {
-        //track total time elapsed to calculate fps
-        long totalTime = 0;
+        //the fixed amount of time per each update (nanoseconds)
+        final long targetTime = (Animation.MILLISECONDS_PER_SECOND * Animation.NANO_SECONDS_PER_MILLISECOND) / FPS;
         
-        //the frame count
-        int frames = 0;
+        //the time of the previous loop
+        long previous = System.nanoTime();
         
-        //the expected amount of time per each update
-        final long targetTime = (Animation.MILLISECONDS_PER_SECOND / FPS);
+        //the time we still have to simulate
+        long lag = 0;
         
         try
         {
             //continue to loop while the thread is running
             while (isRunning())
             {
-            	//if the game is paused we won't continue
+            	//if the game is paused, wait until resumed
             	if (isPaused())
+            	{
+            		parkWhilePaused();
+            		
+            		//the time paused is not simulated
+            		previous = System.nanoTime();
+            		lag = 0;
             		continue;
+            	}
             	
-                //get the start time of this update
-                final long startTime = System.nanoTime();
-
-                //assign the canvas null
-                setCanvas(null);
-
-                try 
-                {
-                    //attempt to lock the canvas to edit the pixels of the surface
-                	setCanvas(getHolder().lockCanvas());
-
-                    //make sure no other threads are accessing the holder
-                    synchronized (getHolder())
+            	//if nothing changed and the current screen does not need updates, wait for input or a state change
+            	if (!changed && getPanel().isIdle())
+            	{
+            		park(IDLE_TIMEOUT);
+            		
+            		//the time idle is not simulated, update right away
+            		previous = System.nanoTime();
+            		lag = targetTime;
+            	}
+            	
+            	//the frame will handle any change made until now
+            	changed = false;
+            	
+            	//add the time elapsed since the previous loop
+            	final long startTime = System.nanoTime();
+            	lag += startTime - previous;
+            	previous = startTime;
+            	
+            	//the number of updates in this loop
+            	int count = 0;
+            	
+            	//update at a fixed step, no matter how long the frames take to present
+            	while (lag >= targetTime && count < MAX_UPDATES_PER_FRAME)
+            	{
+            		final long updateTime = System.nanoTime();
+            		
+            		//update our game panel
+            		getPanel().update();
+            		
+            		Metrics.UPDATE.record(System.nanoTime() - updateTime);
+            		
+            		lag -= targetTime;
+            		count++;
+            	}
+            	
+            	//we are too far behind, drop the time instead of trying to catch up
+            	if (lag >= targetTime)
+            		lag = 0;
+            	
+            	//if the game was updated, draw and publish a new frame
+            	if (count > 0)
+            	{
+                    try
                     {
-                        //update our game panel
-                        getPanel().update();
-
-                        //if the canvas object was obtained and we did not pause, render
-                        if (getCanvas() != null && !isPaused())
-                            getPanel().draw(getCanvas());
+                    	//the overlay creates text, so it is not checked
+                    	final boolean guard = Metrics.hasDiagnostics() && !Metrics.hasOverlay();
+                    	
+                    	if (guard)
+                    	{
+                    		allocations.begin();
+                    	}
+                    	else
+                    	{
+                    		//counting slows the runtime down, stop while not checked
+                    		allocations.stop();
+                    	}
+                    	
+                    	final long renderTime = System.nanoTime();
+                    	
+                    	//draw the frame on the back buffer, the frame is presented by the render thread
+                    	getPanel().render(frames.begin());
+                    	
+                    	Metrics.RENDER.record(System.nanoTime() - renderTime);
+                    	
+                    	//the frame is complete, present it on the next vsync
+                    	frames.publish();
+                    	renderer.requestRender();
+                    	
+                    	//the frame is presented either way, a failure is only reported
+                    	if (guard)
+                    		allocations.end();
                     }
-                }
-                catch (Exception e)
-                {
-                    e.printStackTrace();
-                }
-                finally 
-                {
-                    //remove the lock (if possible)
-                    if (getCanvas() != null)
+                    catch (Exception e)
                     {
-                        try
-                        {
-                            //render the pixels on the canvas to the screen
-                        	getHolder().unlockCanvasAndPost(getCanvas());
-                        }
-                        catch (Exception e)
-                        {
-                            e.printStackTrace();
-                        }
+                        e.printStackTrace();
                     }
-                }
-
-                //calculate the number of milliseconds elapsed
-                final long timeMillis = (System.nanoTime() - startTime) / Animation.NANO_SECONDS_PER_MILLISECOND;
-
-                //determine the amount of time to sleep
-                long waitTime = targetTime - timeMillis;
-
-                //make sure the wait time is at least 1 millisecond
-                if (waitTime < 1)
-                    waitTime = 1;
+            	}
+            	
+                //determine the amount of time to sleep until the next update (nanoseconds)
+                final long waitTime = targetTime - lag - (System.nanoTime() - startTime);
                 
-                try
-                {
-                    //sleep the thread
-                    sleep(waitTime);
-                }
-                catch (Exception e)
-                {
-                    e.printStackTrace();
-                }
-
-                //if we are debugging, print the fps
-                if (DEBUG)
+                if (waitTime > 0)
                 {
-                    //calculate the total time passed
-                    totalTime += System.nanoTime() - startTime;
-
-                    //increase the frame count
-                    frames++;
-
-                    //if the frame count = the assigned fps
-                    if (frames == FPS)
-                    {
-                        //calculate the average fps
-                        final double fpsAverage = (double)Animation.MILLISECONDS_PER_SECOND / ((double)(totalTime / frames) / Animation.NANO_SECONDS_PER_MILLISECOND);
-
-                        //reset these values
-                        frames = 0;
-                        totalTime = 0;
-
-                        //display the average
-                        System.out.println("Average FPS " + fpsAverage);
-                    }
+	                final long sleepTime = System.nanoTime();
+	                
+	                try
+	                {
+	                    //sleep the thread
+	                    sleep(waitTime / Animation.NANO_SECONDS_PER_MILLISECOND, (int)(waitTime % Animation.NANO_SECONDS_PER_MILLISECOND));
+	                }
+	                catch (Exception e)
+	                {
+	                    e.printStackTrace();
+	                }
+	                
+	                //how much longer we slept than requested
+	                Metrics.OVERSHOOT.record(System.nanoTime() - sleepTime - waitTime);
                 }
+                
+                //if there was a garbage collection during this loop, record the time of the loop
+                Metrics.checkGarbageCollection(System.nanoTime() - startTime);
             }
         }
         catch (Exception ex)
@@ -169,9 +214,73 @@ public class MainThread extends Thread
         {
 	        //stop thread
 	        this.setRunning(false);
+	        
+	        //stop presenting frames and release them
+	        renderer.quit();
+	        frames.recycle();
+	        
+	        //stop counting allocations
+	        allocations.stop();
         }
     }
     
+    /**
+     * Wait on the idle condition until the thread is no longer paused, or stopped
+     */
+    private void parkWhilePaused()
+    {
+    	synchronized (idle)
+    	{
+    		while (isPaused() && isRunning())
+    		{
+	    		try
+	    		{
+	    			idle.wait();
+	    		}
+	    		catch (InterruptedException e)
+	    		{
+	    			//check the flags again
+	    		}
+    		}
+    	}
+    }
+    
+    /**
+     * Wait on the idle condition, until {@link #wake()} is called or the timeout expires
+     * @param timeout The maximum time (milliseconds) to wait
+     */
+    private void park(final long timeout)
+    {
+    	synchronized (idle)
+    	{
+    		//something changed while we were getting here
+    		if (changed || !isRunning())
+    			return;
+    		
+    		try
+    		{
+    			idle.wait(timeout);
+    		}
+    		catch (InterruptedException e)
+    		{
+    			//continue the loop, the running flag decides if we stop
+    		}
+    	}
+    }
+    
+    /**
+     * Flag that something changed and wake the thread if it is waiting.<br>
+     * This is called on input, state changes and surface changes
+     */
+    public void wake()
+    {
+    	synchronized (idle)
+    	{
+    		changed = true;
+    		idle.notifyAll();
+    	}
+    }
+    
     /**
      * Set the pause flag.<br>
      * If we are pausing the game we will make sure the canvas is not locked
@@ -180,6 +289,9 @@ public class MainThread extends Thread
     public void setPause(final boolean pause)
     {
     	this.pause = pause;
+    	
+    	//wake the thread so it can resume, or start waiting
+    	wake();
     }
     
     /**
@@ -198,6 +310,10 @@ public class MainThread extends Thread
     public void setRunning(final boolean running)
     {
         this.running = running;
+        
+        //wake the thread so it can finish
+        if (!running)
+        	wake();
     }
     
     /**
@@ -210,21 +326,23 @@ public class MainThread extends Thread
     }
     
     /**
-     * Assign the canvas
-     * @param canvas The desired canvas object
+     * Assign the surface the frames are presented to.<br>
+     * When the surface is removed this waits until the frame being presented is done
+     * @param surface true if the surface was created or changed, false if it was destroyed
+     * @param width The width of the surface
+     * @param height The height of the surface
      */
-    private void setCanvas(final Canvas canvas)
+    public void setSurface(final boolean surface, final int width, final int height)
     {
-    	this.canvas = canvas;
-    }
-    
-    /**
-     * Get the canvas
-     * @return The object we want to write pixel data to
-     */
-    private Canvas getCanvas()
-    {
-    	return this.canvas;
+    	//the next frames are drawn at the size of the surface
+    	if (surface)
+    		frames.setSize(width, height);
+    	
+    	renderer.setSurface(surface, width, height);
+    	
+    	//draw a frame at the new size
+    	if (surface)
+    		wake();
     }
     
     /**
@@ -235,13 +353,4 @@ public class MainThread extends Thread
     {
     	return this.panel;
     }
-    
-    /**
-     * Get the surface holder
-     * @return The surface holder reference object
-     */
-    private SurfaceHolder getHolder()
-    {
-    	return this.holder;
-    }
 }
\ No newline at end of file
@@ -0,0 +1,293 @@
+package com.gamesbykevin.flood.thread;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.graphics.Rect;
+import android.os.Build;
+import android.os.Handler;
+import android.os.HandlerThread;
+import android.view.Choreographer;
+import android.view.SurfaceHolder;
+
+import com.gamesbykevin.flood.metrics.Metrics;
+
+/**
+ * The thread presenting the frames published by the game thread.<br>
+ * A frame is presented on the display vsync using the {@link Choreographer},
+ * devices without a Choreographer (API 15) fall back to a timer at the typical refresh rate.
+ * Only new frames are presented, so nothing is drawn while the game is idle.
+ * @author GOD
+ */
+public class RenderThread
+{
+    /**
+     * The time between frames (milliseconds) when there is no Choreographer
+     */
+    public static final long FALLBACK_FRAME_INTERVAL = 16L;
+
+    //the name of the render thread
+    private static final String THREAD_NAME = "RenderThread";
+
+    //the looper thread presenting the frames
+    private final HandlerThread thread;
+
+    //used to run on the render thread
+    private final Handler handler;
+
+    //area where the frames are presented
+    private final SurfaceHolder holder;
+
+    //the frames published by the game thread
+    private final FrameBuffer frames;
+
+    //paint used to scale the frame to the surface
+    private final Paint paint;
+
+    //where we draw the frame on the surface
+    private final Rect destination = new Rect();
+
+    //guards the surface, it can't be destroyed while we present a frame
+    private final Object surfaceLock = new Object();
+
+    //do we have a surface to present to
+    private boolean surface = false;
+
+    //the sequence of the frame presented last, only used by the render thread
+    private long presented = -1;
+
+    //is a frame scheduled, only used by the render thread
+    private boolean scheduled = false;
+
+    //the vsync callback, null if the device has no Choreographer
+    private Vsync vsync;
+
+    //present the latest frame
+    private final Runnable frame = new Runnable()
+    {
+        @Override
+        public void run()
+        {
+            scheduled = false;
+            present();
+        }
+    };
+
+    //schedule a frame on the next vsync
+    private final Runnable schedule = new Runnable()
+    {
+        @Override
+        public void run()
+        {
+            //a frame is already on the way, it will present the latest frame
+            if (scheduled)
+                return;
+
+            scheduled = true;
+
+            //the Choreographer has to be created on this thread
+            if (vsync == null && Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN)
+                vsync = new Vsync(frame);
+
+            if (vsync != null)
+            {
+                vsync.post();
+            }
+            else
+            {
+                handler.postDelayed(frame, FALLBACK_FRAME_INTERVAL);
+            }
+        }
+    };
+
+    /**
+     * Create and start the render thread
+     * @param holder The surface holder we present to
+     * @param frames The frames published by the game thread
+     */
+    public RenderThread(final SurfaceHolder holder, final FrameBuffer frames)
+    {
+        this.holder = holder;
+        this.frames = frames;
+
+        //smooth a frame drawn before the surface changed size, when scaled to the surface
+        this.paint = new Paint();
+        this.paint.setFilterBitmap(true);
+
+        //start the looper
+        this.thread = new HandlerThread(THREAD_NAME);
+        this.thread.start();
+        this.handler = new Handler(this.thread.getLooper());
+    }
+
+    /**
+     * Request the latest frame to be presented on the next vsync.<br>
+     * This can be called from any thread
+     */
+    public void requestRender()
+    {
+        handler.post(schedule);
+    }
+
+    /**
+     * Assign the surface
+     * @param surface true if there is a surface to present to, false if it was destroyed
+     * @param width The width of the surface
+     * @param height The height of the surface
+     */
+    public void setSurface(final boolean surface, final int width, final int height)
+    {
+        //wait for the frame being presented
+        synchronized (surfaceLock)
+        {
+            this.surface = surface;
+            this.destination.set(0, 0, width, height);
+        }
+
+        if (surface)
+        {
+            //the new surface is empty, present the latest frame again
+            handler.post(new Runnable()
+            {
+                @Override
+                public void run()
+                {
+                    presented = -1;
+                }
+            });
+
+            requestRender();
+        }
+    }
+
+    /**
+     * Present the latest frame, if it has not been presented yet
+     */
+    private void present()
+    {
+        final long sequence = frames.getSequence();
+
+        //the latest frame is already on the surface
+        if (sequence == presented)
+            return;
+
+        synchronized (surfaceLock)
+        {
+            //there is no surface to present to
+            if (!surface)
+                return;
+
+            Canvas canvas = null;
+
+            //time how long it takes to present the frame
+            final long start = System.nanoTime();
+
+            try
+            {
+                //attempt to lock the canvas to edit the pixels of the surface
+                canvas = holder.lockCanvas();
+
+                if (canvas != null)
+                {
+                    //the frame is drawn outside the lock of the frames, so the game thread can publish meanwhile
+                    final Bitmap bitmap = frames.acquire();
+
+                    try
+                    {
+                        //the frame is the size of the surface, unless the surface changed since it was drawn
+                        if (bitmap != null)
+                            canvas.drawBitmap(bitmap, null, destination, paint);
+                    }
+                    finally
+                    {
+                        frames.release();
+                    }
+
+                    presented = sequence;
+                }
+            }
+            catch (Exception e)
+            {
+                e.printStackTrace();
+            }
+            finally
+            {
+                if (canvas != null)
+                {
+                    try
+                    {
+                        //render the pixels on the canvas to the screen
+                        holder.unlockCanvasAndPost(canvas);
+                    }
+                    catch (Exception e)
+                    {
+                        e.printStackTrace();
+                    }
+
+                    Metrics.PRESENT.record(System.nanoTime() - start);
+                }
+            }
+        }
+    }
+
+    /**
+     * Stop the render thread, no frames are presented after this
+     */
+    public void quit()
+    {
+        handler.post(new Runnable()
+        {
+            @Override
+            public void run()
+            {
+                handler.removeCallbacks(frame);
+
+                if (vsync != null)
+                    vsync.remove();
+
+                thread.quit();
+            }
+        });
+    }
+
+    /**
+     * Runs the frame on the display vsync.<br>
+     * This is a separate class so it is only loaded on devices that have a Choreographer
+     */
+    private static final class Vsync implements Choreographer.FrameCallback
+    {
+        //the Choreographer of the render thread
+        private final Choreographer choreographer;
+
+        //what we run on the vsync
+        private final Runnable frame;
+
+        private Vsync(final Runnable frame)
+        {
+            this.choreographer = Choreographer.getInstance();
+            this.frame = frame;
+        }
+
+        @Override
+        public void doFrame(final long frameTimeNanos)
+        {
+            frame.run();
+        }
+
+        /**
+         * Run the frame on the next vsync
+         */
+        private void post()
+        {
+            choreographer.postFrameCallback(this);
+        }
+
+        /**
+         * Remove the frame if it was not run yet
+         */
+        private void remove()
+        {
+            choreographer.removeFrameCallback(this);
+        }
+    }
+}